@@ -0,0 +1,60 @@
+package com.mygdx.game.benchmark;
+
+import com.mygdx.game.HeadlessGame;
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.character.Player;
+import com.mygdx.game.game.BattleController;
+import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.pokemon.Pokemon;
+import com.mygdx.game.random.RandomService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the damage and effect resolution of a single attack in a battle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BattleBenchmark {
+    private Pokedex pokedex;
+    private BattleController battleController;
+    private Pokemon source;
+    private Pokemon target;
+    private Ability ability;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessGame.start();
+        this.pokedex = new Pokedex(new AbilityLoader(), new RandomService(42));
+        Player player = new Player("Benchmark", this.pokedex);
+        this.source = this.pokedex.getPokemon("charmander");
+        this.target = this.pokedex.getPokemon("bulbasaur");
+        player.collectPokemon(this.source);
+        this.battleController = new BattleController(player, this.target, new RandomService(42));
+        for (Ability candidate : this.source.getAbilities()) {
+            if (candidate.isUnlocked()) {
+                this.ability = candidate;
+                break;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.pokedex.dispose();
+    }
+
+    @Benchmark
+    public Pokemon attack() {
+        this.target.heal();
+        this.target.setFainted(false);
+        this.battleController.attack(this.ability, this.source, this.target);
+        return this.target;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mygdx.game.benchmark;
+
+import com.mygdx.game.HeadlessGame;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.pokemon.Pokemon;
+import com.mygdx.game.random.RandomService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the creation of Pokemon instances from the Pokedex templates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PokemonBenchmark {
+    private Pokedex pokedex;
+    private Pokemon template;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessGame.start();
+        this.pokedex = new Pokedex(new AbilityLoader(), new RandomService(42));
+        this.template = this.pokedex.getPokemon("charmander");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.pokedex.dispose();
+    }
+
+    @Benchmark
+    public Pokemon copy() {
+        return this.template.copy();
+    }
+
+    @Benchmark
+    public Pokemon randomPokemon() {
+        return this.pokedex.getRandomPokemon();
+    }
+}
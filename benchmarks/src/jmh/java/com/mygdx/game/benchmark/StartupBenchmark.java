@@ -0,0 +1,48 @@
+package com.mygdx.game.benchmark;
+
+import com.mygdx.game.HeadlessGame;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.asset.AtlasCache;
+import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.random.RandomService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the loading of the game data done at startup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StartupBenchmark {
+    private AbilityLoader abilityLoader;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessGame.start();
+        // Keep the atlas loaded so that only the Pokedex itself is measured.
+        AtlasCache.getInstance().acquire(AtlasCache.POKEMON_ATLAS);
+        this.abilityLoader = new AbilityLoader();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AtlasCache.getInstance().release(AtlasCache.POKEMON_ATLAS);
+    }
+
+    @Benchmark
+    public AbilityLoader abilityLoader() {
+        return new AbilityLoader();
+    }
+
+    @Benchmark
+    public Pokedex pokedex() {
+        Pokedex pokedex = new Pokedex(this.abilityLoader, new RandomService(42));
+        pokedex.dispose();
+        return pokedex;
+    }
+}
@@ -0,0 +1,91 @@
+package com.mygdx.game.benchmark;
+
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.mygdx.game.HeadlessGame;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.character.Player;
+import com.mygdx.game.game.GameController;
+import com.mygdx.game.game.Zone;
+import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.random.RandomService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the overworld logic of a zone: spawning the wild Pokemon and the per-frame collision check.
+ * The maps are generated with the given size and number of entities.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZoneBenchmark {
+    private static final int POSITIONS = 1024;
+    private static final float FRAME_TIME = 1 / 60f;
+
+    @Param({"1024", "4096", "16384"})
+    public int mapSize;
+
+    @Param({"100", "1000", "10000"})
+    public int entityCount;
+
+    private RandomService random;
+    private Pokedex pokedex;
+    private Player player;
+    private TiledMap spawnMap;
+    private TiledMap collisionMap;
+    private Zone collisionZone;
+    private GameController gameController;
+    private float[] positions;
+    private int position;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessGame.start();
+        this.random = new RandomService(42);
+        this.pokedex = new Pokedex(new AbilityLoader(), this.random);
+        this.player = new Player("Benchmark", this.pokedex);
+        this.player.collectPokemon(this.pokedex.getPokemon("charmander"));
+
+        // Every spawn area makes 10 spawn attempts.
+        this.spawnMap = HeadlessGame.createMap(this.mapSize, 0, Math.max(1, this.entityCount / 10), 1);
+        this.collisionMap = HeadlessGame.createMap(this.mapSize, this.entityCount, 0, 2);
+        this.collisionZone = new Zone("benchmark", this.collisionMap, this.player, this.pokedex, this.random.get(RandomService.Stream.SPAWN));
+        // The benchmarked map has no wild Pokemon and the player never reaches the exit, so the screen is never used.
+        this.gameController = new GameController(this.player, null);
+
+        Random random = new Random(3);
+        this.positions = new float[POSITIONS * 2];
+        for (int i = 0; i < this.positions.length; i++) {
+            this.positions[i] = random.nextFloat() * (this.mapSize - 64);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.collisionZone.dispose();
+        this.spawnMap.dispose();
+        this.collisionMap.dispose();
+        this.pokedex.dispose();
+    }
+
+    @Benchmark
+    public Zone spawnPokemons() {
+        Zone zone = new Zone("benchmark", this.spawnMap, this.player, this.pokedex, this.random.get(RandomService.Stream.SPAWN));
+        zone.dispose();
+        return zone;
+    }
+
+    @Benchmark
+    public Player checkCollisions() {
+        this.position = (this.position + 1) % POSITIONS;
+        this.player.setPosition(this.positions[this.position * 2], this.positions[this.position * 2 + 1]);
+        this.player.getVelocity().set(200, 200);
+        this.gameController.checkCollisions(FRAME_TIME, this.collisionZone);
+        return this.player;
+    }
+}
@@ -1,69 +1,48 @@
 package com.mygdx.game.ability;
 
 import com.mygdx.game.item.Effect;
+import com.mygdx.game.pokemon.PokemonType;
 
 /**
- * Represents an Ability in the game.
- * An Ability has a name, description, effect, power, duration, level requirement, cooldown, type, and unlock status.
+ * Represents an Ability known by a Pokemon.
+ * The immutable characteristics of the ability (name, description, effect, power, duration, level requirement,
+ * cooldown and type) are shared through its {@link AbilityDefinition}; an Ability only holds the state
+ * that belongs to one Pokemon, which is the unlock status and whether it is cooling down in a battle.
  */
 public class Ability {
-    private final String name;
-    private final String description;
-    private final Effect effect;
-    private final int power;
-    private final int duration;
-    private final int levelRequirement;
-    private final int cooldown;
-    private final String type;
+    private final AbilityDefinition definition;
     private boolean isUnlocked;
-
+    private boolean coolingDown;
 
     /**
-     * Convenient constructor for an Ability with no effect. isUnlocked is set to false by default.
+     * Convenient constructor for a locked Ability.
      *
-     * @param name             the name of the ability
-     * @param description      the description of the ability
-     * @param type             the type of the ability
-     * @param cooldown         the cooldown of the ability
-     * @param duration         the duration of the ability
-     * @param power            the power of the ability
-     * @param levelRequirement the level requirement of the ability
-     * @param effect           the effect of the ability
+     * @param definition the definition of the ability
      */
-    public Ability(String name, String description, String type, int cooldown, int duration, int power, int levelRequirement, Effect effect) {
-        this(name, description, type, cooldown, duration, power, levelRequirement, effect, false);
+    public Ability(AbilityDefinition definition) {
+        this(definition, false);
     }
 
     /**
-     * Constructs a new Ability with the specified characteristics.
+     * Constructs a new Ability for the given definition.
      *
-     * @param name             the name of the ability
-     * @param description      the description of the ability
-     * @param type             the type of the ability
-     * @param cooldown         the cooldown of the ability
-     * @param duration         the duration of the ability
-     * @param power            the power of the ability
-     * @param levelRequirement the level requirement of the ability
-     * @param effect           the effect of the ability
-     * @param isUnlocked       the unlock status of the ability
+     * @param definition the definition of the ability
+     * @param isUnlocked the unlock status of the ability
      */
-    public Ability(String name, String description, String type, int cooldown, int duration, int power, int levelRequirement, Effect effect, boolean isUnlocked) {
-        this.name = name;
-        this.description = description;
-        this.type = type;
-        this.cooldown = cooldown;
-        this.duration = duration;
-        this.power = power;
-        this.levelRequirement = levelRequirement;
-        this.effect = effect;
+    public Ability(AbilityDefinition definition, boolean isUnlocked) {
+        this.definition = definition;
         this.isUnlocked = isUnlocked;
     }
 
     /**
-     * Copy Constructor for an Ability.
+     * Copy Constructor for an Ability. The definition is shared with the original.
      */
     public Ability(Ability original) {
-        this(original.name, original.description, original.type, original.cooldown, original.duration, original.power, original.levelRequirement, original.effect, original.isUnlocked);
+        this(original.definition, original.isUnlocked);
+    }
+
+    public AbilityDefinition getDefinition() {
+        return this.definition;
     }
 
     public boolean isUnlocked() {
@@ -74,20 +53,33 @@ public class Ability {
         this.isUnlocked = true;
     }
 
-    public String getName() {
-        return this.name;
+    public boolean isCoolingDown() {
+        return this.coolingDown;
     }
 
-    public Effect getEffect() {
-        return this.effect;
+    public void setCoolingDown(boolean coolingDown) {
+        this.coolingDown = coolingDown;
+    }
+
+    /**
+     * Returns whether the ability can be used now, which is when it is unlocked and not cooling down.
+     *
+     * @return true if the ability is available
+     */
+    public boolean isAvailable() {
+        return this.isUnlocked && !this.coolingDown;
     }
 
-    public int getAmount() {
-        return this.effect.getAmount(this);
+    public String getName() {
+        return this.definition.name();
+    }
+
+    public Effect getEffect() {
+        return this.definition.effect();
     }
 
     public int getLvlReq() {
-        return this.levelRequirement;
+        return this.definition.levelRequirement();
     }
 
     public Ability copy() {
@@ -95,27 +87,27 @@ public class Ability {
     }
 
     public int getPower() {
-        return this.power;
+        return this.definition.power();
     }
 
     public int getDuration() {
-        return this.duration;
+        return this.definition.duration();
     }
 
     public int getCooldown() {
-        return this.cooldown;
+        return this.definition.cooldown();
     }
 
     public String getDescription() {
-        return this.description;
+        return this.definition.description();
     }
 
-    public String getType() {
-        return this.type;
+    public PokemonType getType() {
+        return this.definition.type();
     }
 
     @Override
     public String toString() {
-        return "Skill: " + this.name + " " + this.description + " LVLRQ: " + this.levelRequirement + " UNLCKD: " + this.isUnlocked;
+        return "Skill: " + this.getName() + " " + this.getDescription() + " LVLRQ: " + this.getLvlReq() + " UNLCKD: " + this.isUnlocked;
     }
 }
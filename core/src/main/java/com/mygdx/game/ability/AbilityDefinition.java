@@ -0,0 +1,22 @@
+package com.mygdx.game.ability;
+
+import com.mygdx.game.item.Effect;
+import com.mygdx.game.pokemon.PokemonType;
+
+/**
+ * Immutable data of an ability as loaded from abilities.json.
+ * A single definition is shared by every Pokemon knowing the ability; the per-Pokemon state,
+ * such as whether the ability is unlocked, lives in {@link Ability}.
+ *
+ * @param name             the name of the ability
+ * @param description      the description of the ability
+ * @param type             the type of the ability
+ * @param cooldown         the cooldown of the ability in turns
+ * @param duration         the duration of the ability in turns
+ * @param power            the power of the ability
+ * @param levelRequirement the level requirement of the ability
+ * @param effect           the effect of the ability
+ */
+public record AbilityDefinition(String name, String description, PokemonType type, int cooldown, int duration,
+                                int power, int levelRequirement, Effect effect) {
+}
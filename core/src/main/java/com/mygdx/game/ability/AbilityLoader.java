@@ -1,44 +1,71 @@
 package com.mygdx.game.ability;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
+import com.mygdx.game.asset.DataBundle;
 import com.mygdx.game.item.Effect;
+import com.mygdx.game.pokemon.PokemonType;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 
 /**
- * Class that loads abilities from JSON file
+ * Class that loads abilities from JSON file or from a compiled {@link DataBundle}.
+ * Every ability is loaded once as an immutable AbilityDefinition which is shared by all Pokemon knowing it.
  */
 public class AbilityLoader {
-    private final HashMap<String, ArrayList<Ability>> abilities;
+    private final EnumMap<PokemonType, ArrayList<AbilityDefinition>> abilities;
 
     /**
-     * Constructor which adds all abilities from a specific JSON file to the list of abilities
+     * Constructor which adds all abilities from abilities.json to the list of abilities
      */
     public AbilityLoader() {
-        this.abilities = new HashMap<>();
+        this(Gdx.files.internal("abilities.json"));
+    }
+
+    /**
+     * Constructor which adds all abilities from a specific JSON file to the list of abilities.
+     * Does not need a running libGDX application when given a file handle created from a java.io.File.
+     *
+     * @param file The JSON file to load the abilities from
+     */
+    public AbilityLoader(FileHandle file) {
+        this.abilities = new EnumMap<>(PokemonType.class);
         JsonReader json = new JsonReader();
-        JsonValue entries = json.parse(Gdx.files.internal("abilities.json"));
+        JsonValue entries = json.parse(file);
         for (int i = 0; i < entries.size; i++) {
             JsonValue entry = entries.get(i);
             String name = entry.getString("name");
             String description = entry.getString("description");
-            String type = entry.getString("type");
+            PokemonType type = PokemonType.fromName(entry.getString("type"));
             int cooldown = entry.getInt("cooldown");
             int duration = entry.getInt("duration");
             int power = entry.getInt("power");
             int levelRequirement = entry.getInt("level");
             String effect = entry.getString("effect");
 
-            Ability ability = new Ability(name, description, type, cooldown, duration, power, levelRequirement, this.parseEffect(effect));
+            AbilityDefinition ability = new AbilityDefinition(name, description, type, cooldown, duration, power, levelRequirement, this.parseEffect(effect));
             this.addAbility(type, ability);
         }
 
     }
 
+    /**
+     * Constructor which adds all abilities of a data bundle to the list of abilities.
+     *
+     * @param bundle The loaded data bundle
+     */
+    public AbilityLoader(DataBundle bundle) {
+        this.abilities = new EnumMap<>(PokemonType.class);
+        for (AbilityDefinition ability : bundle.getAbilities()) {
+            this.addAbility(ability.type(), ability);
+        }
+    }
+
     private Effect parseEffect(String string) {
         switch (string) {
             case "none": {
@@ -81,7 +108,7 @@ public class AbilityLoader {
         }
     }
 
-    private void addAbility(String type, Ability ability) {
+    private void addAbility(PokemonType type, AbilityDefinition ability) {
         if (this.abilities.get(type) == null) {
             this.abilities.put(type, new ArrayList<>());
             this.abilities.get(type).add(ability);
@@ -91,25 +118,31 @@ public class AbilityLoader {
     }
 
     /**
-     * Returns a copy of list of abilities of a specific type
+     * Returns the definitions of the abilities of a specific type.
+     * Falls back to the normal abilities if there are no abilities of the given type.
      *
      * @param type Type of abilities
-     * @return List of abilities
+     * @return Unmodifiable list of ability definitions
      */
-
-    public List<Ability> getAbilities(String type) {
-        ArrayList<Ability> copyAbilities = new ArrayList<>();
-
+    public List<AbilityDefinition> getAbilities(PokemonType type) {
         if (this.abilities.get(type) != null) {
-            for (Ability ability : this.abilities.get(type)) {
-                copyAbilities.add(ability.copy());
-            }
-        } else if (this.abilities.get("normal") != null) {
-            for (Ability ability : this.abilities.get("normal")) {
-                copyAbilities.add(ability.copy());
-            }
+            return Collections.unmodifiableList(this.abilities.get(type));
+        } else if (this.abilities.get(PokemonType.NORMAL) != null) {
+            return Collections.unmodifiableList(this.abilities.get(PokemonType.NORMAL));
         }
+        return Collections.emptyList();
+    }
 
-        return copyAbilities;
+    /**
+     * Returns the definitions of all abilities, grouped by type.
+     *
+     * @return List of all ability definitions
+     */
+    public List<AbilityDefinition> getAllAbilities() {
+        ArrayList<AbilityDefinition> abilities = new ArrayList<>();
+        for (ArrayList<AbilityDefinition> typeAbilities : this.abilities.values()) {
+            abilities.addAll(typeAbilities);
+        }
+        return abilities;
     }
 }
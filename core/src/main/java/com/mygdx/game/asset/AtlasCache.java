@@ -0,0 +1,152 @@
+package com.mygdx.game.asset;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Central cache for texture atlases used by the game.
+ * Every atlas is loaded exactly once through an AssetManager and shared between all of its users.
+ * Users acquire an atlas before looking up regions and release it when they are done with it;
+ * the atlas is unloaded as soon as the last reference is released.
+ * Regions are resolved once per name and the same TextureRegion instance is handed out on every lookup.
+ */
+public final class AtlasCache implements Disposable {
+    public static final String POKEMON_ATLAS = "Atlas/Pokemons.atlas";
+    public static final String TRAINER_ATLAS = "Atlas/Trainer.atlas";
+    private static AtlasCache instance;
+    private final AssetManager assetManager;
+    private final HashMap<String, Integer> references;
+    private final HashMap<String, HashMap<String, TextureRegion>> regions;
+    private final HashSet<String> preloaded;
+
+    /**
+     * Constructs a new AtlasCache backed by the given AssetManager.
+     *
+     * @param assetManager The AssetManager used to load and unload the atlases
+     */
+    public AtlasCache(AssetManager assetManager) {
+        this.assetManager = assetManager;
+        this.references = new HashMap<>();
+        this.regions = new HashMap<>();
+        this.preloaded = new HashSet<>();
+    }
+
+    /**
+     * Returns the cache shared by the whole game, creating it on first use.
+     *
+     * @return The shared AtlasCache
+     */
+    public static AtlasCache getInstance() {
+        if (instance == null) {
+            instance = new AtlasCache(new AssetManager());
+        }
+        return instance;
+    }
+
+    /**
+     * Queues an atlas in the AssetManager without acquiring it, so it can be loaded in the background
+     * while {@link AssetManager#update()} is called. The first {@link #acquire(String)} of the atlas
+     * then only waits for whatever is left of the loading.
+     *
+     * @param path The internal path of the atlas
+     */
+    public void preload(String path) {
+        if (!this.references.containsKey(path) && this.preloaded.add(path)) {
+            this.assetManager.load(path, TextureAtlas.class);
+        }
+    }
+
+    /**
+     * Acquires a reference to an atlas, loading it if this is the first reference.
+     *
+     * @param path The internal path of the atlas
+     * @return The shared TextureAtlas
+     */
+    public TextureAtlas acquire(String path) {
+        Integer count = this.references.get(path);
+        if (count == null) {
+            if (!this.preloaded.remove(path)) {
+                this.assetManager.load(path, TextureAtlas.class);
+            }
+            this.assetManager.finishLoadingAsset(path);
+            this.references.put(path, 1);
+            this.regions.put(path, new HashMap<>());
+        } else {
+            this.references.put(path, count + 1);
+        }
+        return this.assetManager.get(path, TextureAtlas.class);
+    }
+
+    /**
+     * Releases a reference to an atlas. The atlas and its cached regions are unloaded
+     * once no references are left.
+     *
+     * @param path The internal path of the atlas
+     */
+    public void release(String path) {
+        Integer count = this.references.get(path);
+        if (count == null) {
+            throw new IllegalStateException("Atlas " + path + " is not loaded");
+        }
+        if (count > 1) {
+            this.references.put(path, count - 1);
+        } else {
+            this.references.remove(path);
+            this.regions.remove(path);
+            this.assetManager.unload(path);
+        }
+    }
+
+    /**
+     * Returns the region with the given name from an acquired atlas.
+     * The lookup in the atlas happens only the first time a name is requested.
+     *
+     * @param path The internal path of the atlas
+     * @param name The name of the region
+     * @return The shared TextureRegion, or null if the atlas has no such region
+     */
+    public TextureRegion findRegion(String path, String name) {
+        HashMap<String, TextureRegion> atlasRegions = this.regions.get(path);
+        if (atlasRegions == null) {
+            throw new IllegalStateException("Atlas " + path + " has not been acquired");
+        }
+        if (!atlasRegions.containsKey(name)) {
+            atlasRegions.put(name, this.assetManager.get(path, TextureAtlas.class).findRegion(name));
+        }
+        return atlasRegions.get(name);
+    }
+
+    /**
+     * Returns the number of references currently held on an atlas.
+     *
+     * @param path The internal path of the atlas
+     * @return The number of references, 0 if the atlas is not loaded
+     */
+    public int getReferenceCount(String path) {
+        Integer count = this.references.get(path);
+        return count == null ? 0 : count;
+    }
+
+    public AssetManager getAssetManager() {
+        return this.assetManager;
+    }
+
+    /**
+     * Unloads every atlas regardless of outstanding references.
+     */
+    @Override
+    public void dispose() {
+        this.references.clear();
+        this.regions.clear();
+        this.preloaded.clear();
+        this.assetManager.dispose();
+        if (instance == this) {
+            instance = null;
+        }
+    }
+}
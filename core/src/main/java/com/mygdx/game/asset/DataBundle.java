@@ -0,0 +1,286 @@
+package com.mygdx.game.asset;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.mygdx.game.ability.AbilityDefinition;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.item.Effect;
+import com.mygdx.game.pokemon.PokemonType;
+import com.mygdx.game.pokemon.Species;
+import com.mygdx.game.pokemon.SpeciesLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The species and abilities of the game, compiled from pokemons.json and abilities.json into one binary file.
+ * <p>
+ * The bundle is built by the {@code core:compileDataBundle} Gradle task, which runs {@link #main(String[])}.
+ * The JSON files are validated while compiling, so a bundle never contains unknown types or effects,
+ * duplicate names, evolutions into missing species or types without a starter ability.
+ * <p>
+ * The file starts with a magic number and the format version, followed by a table of every distinct string,
+ * the names of the types and of the effects, the abilities and the species, and ends with a CRC32 of everything before it.
+ * Strings are referenced by their index in the string table and types and effects by their index in the name tables,
+ * which are resolved to the enums once when the bundle is loaded. Loading reads the whole file at once.
+ */
+public final class DataBundle {
+    public static final String FILE_NAME = "data.bin";
+    private static final int MAGIC = 0x504B4442;
+    private static final int VERSION = 1;
+    private final List<AbilityDefinition> abilities;
+    private final List<SpeciesEntry> species;
+
+    private DataBundle(List<AbilityDefinition> abilities, List<SpeciesEntry> species) {
+        this.abilities = Collections.unmodifiableList(abilities);
+        this.species = Collections.unmodifiableList(species);
+    }
+
+    /**
+     * Compiles the JSON files of an assets directory into a bundle.
+     *
+     * @param args The assets directory containing pokemons.json and abilities.json, and the bundle file to write
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: DataBundle <assets directory> <output file>");
+        }
+        File output = new File(args[1]);
+        File directory = output.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        byte[] bundle = compile(new FileHandle(new File(args[0], "pokemons.json")), new FileHandle(new File(args[0], "abilities.json")));
+        new FileHandle(output).writeBytes(bundle, false);
+        System.out.println("Wrote " + output + " (" + bundle.length + " bytes)");
+    }
+
+    /**
+     * Validates the species and abilities of the JSON files and compiles them into a bundle.
+     *
+     * @param pokemons  The JSON file of the species
+     * @param abilities The JSON file of the abilities
+     * @return The content of the bundle
+     * @throws GdxRuntimeException If the JSON files are not valid
+     */
+    public static byte[] compile(FileHandle pokemons, FileHandle abilities) {
+        AbilityLoader abilityLoader = new AbilityLoader(abilities);
+        SpeciesLoader speciesLoader = new SpeciesLoader(pokemons, abilityLoader);
+        validate(abilityLoader, speciesLoader, new JsonReader().parse(abilities).size, new JsonReader().parse(pokemons).size);
+
+        ArrayList<String> strings = new ArrayList<>();
+        HashMap<String, Integer> stringIndices = new HashMap<>();
+        for (AbilityDefinition ability : abilityLoader.getAllAbilities()) {
+            intern(ability.name(), strings, stringIndices);
+            intern(ability.description(), strings, stringIndices);
+        }
+        for (Species species : speciesLoader.getSpecies()) {
+            intern(species.name(), strings, stringIndices);
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(strings.size());
+            for (String string : strings) {
+                writeString(out, string);
+            }
+            out.writeInt(PokemonType.values().length);
+            for (PokemonType type : PokemonType.values()) {
+                writeString(out, type.getName());
+            }
+            out.writeInt(Effect.values().length);
+            for (Effect effect : Effect.values()) {
+                writeString(out, effect.name());
+            }
+
+            out.writeInt(abilityLoader.getAllAbilities().size());
+            for (AbilityDefinition ability : abilityLoader.getAllAbilities()) {
+                out.writeInt(stringIndices.get(ability.name()));
+                out.writeInt(stringIndices.get(ability.description()));
+                out.writeByte(ability.type().ordinal());
+                out.writeInt(ability.cooldown());
+                out.writeInt(ability.duration());
+                out.writeInt(ability.power());
+                out.writeInt(ability.levelRequirement());
+                out.writeByte(ability.effect().ordinal());
+            }
+
+            out.writeInt(speciesLoader.getSize());
+            for (Species species : speciesLoader.getSpecies()) {
+                out.writeInt(stringIndices.get(species.name()));
+                out.writeByte(species.type().ordinal());
+                out.writeInt(species.tier());
+                out.writeInt(species.baseHealth());
+                out.writeInt(species.baseAttack());
+                out.writeInt(species.baseDefense());
+                out.writeInt(species.baseSpeed());
+                out.writeInt(species.evolvesInto() == null ? -1 : stringIndices.get(species.evolvesInto()));
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new GdxRuntimeException(e);
+        }
+    }
+
+    private static void validate(AbilityLoader abilityLoader, SpeciesLoader speciesLoader, int abilityEntries, int speciesEntries) {
+        HashSet<String> names = new HashSet<>();
+        for (AbilityDefinition ability : abilityLoader.getAllAbilities()) {
+            if (ability.effect() == null) {
+                throw new GdxRuntimeException("Ability " + ability.name() + " has an unknown effect");
+            }
+            if (!names.add(ability.name())) {
+                throw new GdxRuntimeException("Ability " + ability.name() + " is defined twice");
+            }
+        }
+        if (names.size() != abilityEntries) {
+            throw new GdxRuntimeException((abilityEntries - names.size()) + " abilities could not be loaded");
+        }
+
+        names.clear();
+        for (Species species : speciesLoader.getSpecies()) {
+            names.add(species.name());
+        }
+        if (names.size() != speciesEntries) {
+            throw new GdxRuntimeException((speciesEntries - names.size()) + " species are defined twice or have an unknown type");
+        }
+        for (Species species : speciesLoader.getSpecies()) {
+            if (species.evolvesInto() != null && !names.contains(species.evolvesInto())) {
+                throw new GdxRuntimeException("Species " + species.name() + " evolves into unknown species " + species.evolvesInto());
+            }
+            if (species.baseHealth() <= 0 || species.baseAttack() < 0 || species.baseDefense() < 0 || species.baseSpeed() < 0) {
+                throw new GdxRuntimeException("Species " + species.name() + " has invalid base stats");
+            }
+            boolean hasStarterAbility = false;
+            for (AbilityDefinition ability : species.abilityPool()) {
+                if (ability.levelRequirement() == 1 && ability.type() == species.type()) {
+                    hasStarterAbility = true;
+                    break;
+                }
+            }
+            if (!hasStarterAbility) {
+                throw new GdxRuntimeException("Species " + species.name() + " has no level 1 ability of type " + species.type().getName());
+            }
+        }
+    }
+
+    private static void intern(String string, List<String> strings, HashMap<String, Integer> indices) {
+        if (!indices.containsKey(string)) {
+            indices.put(string, strings.size());
+            strings.add(string);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Loads a bundle.
+     *
+     * @param file The bundle file
+     * @return The loaded bundle
+     * @throws GdxRuntimeException If the file is not a valid bundle of this version, or refers to types or effects that no longer exist
+     */
+    public static DataBundle load(FileHandle file) {
+        byte[] bytes = file.readBytes();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new GdxRuntimeException(file + " is not a data bundle of version " + VERSION);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - Integer.BYTES);
+            if ((int) crc.getValue() != buffer.getInt(bytes.length - Integer.BYTES)) {
+                throw new GdxRuntimeException(file + " is corrupted");
+            }
+
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readString(buffer);
+            }
+            PokemonType[] types = new PokemonType[buffer.getInt()];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = PokemonType.fromName(readString(buffer));
+            }
+            Effect[] effects = new Effect[buffer.getInt()];
+            for (int i = 0; i < effects.length; i++) {
+                effects[i] = Effect.valueOf(readString(buffer));
+            }
+
+            int abilityCount = buffer.getInt();
+            ArrayList<AbilityDefinition> abilities = new ArrayList<>(abilityCount);
+            for (int i = 0; i < abilityCount; i++) {
+                abilities.add(new AbilityDefinition(strings[buffer.getInt()], strings[buffer.getInt()], types[buffer.get()], buffer.getInt(),
+                        buffer.getInt(), buffer.getInt(), buffer.getInt(), effects[buffer.get()]));
+            }
+            int speciesCount = buffer.getInt();
+            ArrayList<SpeciesEntry> species = new ArrayList<>(speciesCount);
+            for (int i = 0; i < speciesCount; i++) {
+                String name = strings[buffer.getInt()];
+                PokemonType type = types[buffer.get()];
+                int tier = buffer.getInt();
+                int baseHealth = buffer.getInt();
+                int baseAttack = buffer.getInt();
+                int baseDefense = buffer.getInt();
+                int baseSpeed = buffer.getInt();
+                int evolvesInto = buffer.getInt();
+                species.add(new SpeciesEntry(name, type, tier, baseHealth, baseAttack, baseDefense, baseSpeed, evolvesInto < 0 ? null : strings[evolvesInto]));
+            }
+            return new DataBundle(abilities, species);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new GdxRuntimeException(file + " is not a valid data bundle", e);
+        }
+    }
+
+    public List<AbilityDefinition> getAbilities() {
+        return this.abilities;
+    }
+
+    public List<SpeciesEntry> getSpecies() {
+        return this.species;
+    }
+
+    /**
+     * The data of a species stored in the bundle. The ability pool is not stored, it is built from the abilities when loading.
+     *
+     * @param name        The name of the species
+     * @param type        The type of the species
+     * @param tier        The evolutionary tier
+     * @param baseHealth  The base health
+     * @param baseAttack  The base attack
+     * @param baseDefense The base defense
+     * @param baseSpeed   The base speed
+     * @param evolvesInto The name of the species it evolves into, or null
+     */
+    public record SpeciesEntry(String name, PokemonType type, int tier, int baseHealth, int baseAttack, int baseDefense, int baseSpeed,
+                               String evolvesInto) {
+    }
+}
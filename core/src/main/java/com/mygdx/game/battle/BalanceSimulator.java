@@ -0,0 +1,246 @@
+package com.mygdx.game.battle;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.ability.AbilityDefinition;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.item.Effect;
+import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.pokemon.PokemonType;
+import com.mygdx.game.pokemon.Species;
+import com.mygdx.game.pokemon.SpeciesLoader;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Command line tool that measures the balance of the species by simulating battles between every pair of species.
+ * Every battle draws a fresh set of four distinct abilities for both sides, the same way the Pokedex does for the game,
+ * and is resolved by the BattleEngine. The species pairs are spread over all cores with fork/join;
+ * every task owns a SplittableRandom split from its parent, so a seed reproduces the same results
+ * regardless of how the tasks are scheduled.
+ * <p>
+ * The win rate and average number of turns until a Pokemon faints are printed as CSV matrices,
+ * the row being the species the rate is given for. The usage of every effect is printed afterwards.
+ * <p>
+ * Options: {@code --assets <dir>} (default: the working directory), {@code --battles <n>} battles per pair (default 200),
+ * {@code --level <n>} (default 10), {@code --turns <n>} turns before a battle is a draw (default 100) and {@code --seed <n>}.
+ */
+public final class BalanceSimulator {
+    private static final int PAIRS_PER_TASK = 8;
+    private final Species[] species;
+    private final int battles;
+    private final int level;
+    private final int maxTurns;
+    private final int[] wins;
+    private final int[] draws;
+    private final long[] turnsToFaint;
+
+    /**
+     * Constructs a new BalanceSimulator.
+     *
+     * @param species  The species to simulate
+     * @param battles  The number of battles per pair of species
+     * @param level    The level of both Pokemon in every battle
+     * @param maxTurns The number of turns after which a battle is a draw
+     */
+    public BalanceSimulator(Species[] species, int battles, int level, int maxTurns) {
+        this.species = species;
+        this.battles = battles;
+        this.level = level;
+        this.maxTurns = maxTurns;
+        this.wins = new int[species.length * species.length];
+        this.draws = new int[species.length * species.length];
+        this.turnsToFaint = new long[species.length * species.length];
+    }
+
+    public static void main(String[] args) {
+        String assets = ".";
+        int battles = 200;
+        int level = 10;
+        int maxTurns = 100;
+        long seed = System.nanoTime();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--assets":
+                    assets = args[i + 1];
+                    break;
+                case "--battles":
+                    battles = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--level":
+                    level = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--turns":
+                    maxTurns = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        // Loaded up front, the lazy load of the type chart is not meant to be raced by the worker threads.
+        PokemonType.loadEffectiveness(new FileHandle(new File(assets, "types.json")));
+        AbilityLoader abilityLoader = new AbilityLoader(new FileHandle(new File(assets, "abilities.json")));
+        SpeciesLoader speciesLoader = new SpeciesLoader(new FileHandle(new File(assets, "pokemons.json")), abilityLoader);
+
+        BalanceSimulator simulator = new BalanceSimulator(speciesLoader.getSpecies().toArray(new Species[0]), battles, level, maxTurns);
+        long start = System.nanoTime();
+        long[] effectUsage = simulator.run(seed);
+        float seconds = (System.nanoTime() - start) / 1_000_000_000f;
+
+        System.out.println("Simulated " + (long) battles * simulator.species.length * simulator.species.length + " battles at level " + level
+                + " in " + seconds + " s on " + ForkJoinPool.getCommonPoolParallelism() + " threads (seed " + seed + ")");
+        System.out.println();
+        System.out.println("Win rate");
+        simulator.printMatrix(false);
+        System.out.println();
+        System.out.println("Average turns to faint");
+        simulator.printMatrix(true);
+        System.out.println();
+        System.out.println("Effect usage");
+        long totalUsage = 0;
+        for (long usage : effectUsage) {
+            totalUsage += usage;
+        }
+        for (Effect effect : Effect.values()) {
+            System.out.println(effect + "," + effectUsage[effect.ordinal()] + ","
+                    + String.format(Locale.ROOT, "%.4f", totalUsage == 0 ? 0 : effectUsage[effect.ordinal()] / (double) totalUsage));
+        }
+    }
+
+    /**
+     * Simulates the battles of every pair of species on the common fork/join pool.
+     *
+     * @param seed The seed of the random generator
+     * @return How often every effect was used, indexed by the ordinal of the effect
+     */
+    public long[] run(long seed) {
+        return ForkJoinPool.commonPool().invoke(new PairTask(0, this.species.length * this.species.length, new SplittableRandom(seed)));
+    }
+
+    /**
+     * Returns the rate at which a species beats another species.
+     *
+     * @param species  The index of the species
+     * @param opponent The index of the opponent
+     * @return The number of wins divided by the number of battles
+     */
+    public double getWinRate(int species, int opponent) {
+        return this.wins[species * this.species.length + opponent] / (double) this.battles;
+    }
+
+    /**
+     * Returns the average number of turns until one of the Pokemon fainted in the battles between two species.
+     * Battles that ended in a draw are not counted.
+     *
+     * @param species  The index of the species
+     * @param opponent The index of the opponent
+     * @return The average number of turns, or 0 if every battle was a draw
+     */
+    public double getAverageTurnsToFaint(int species, int opponent) {
+        int pair = species * this.species.length + opponent;
+        int decided = this.battles - this.draws[pair];
+        return decided == 0 ? 0 : this.turnsToFaint[pair] / (double) decided;
+    }
+
+    private void printMatrix(boolean turns) {
+        StringBuilder line = new StringBuilder("species");
+        for (Species opponent : this.species) {
+            line.append(',').append(opponent.name());
+        }
+        System.out.println(line);
+        for (int i = 0; i < this.species.length; i++) {
+            line.setLength(0);
+            line.append(this.species[i].name());
+            for (int j = 0; j < this.species.length; j++) {
+                double value = turns ? this.getAverageTurnsToFaint(i, j) : this.getWinRate(i, j);
+                line.append(',').append(String.format(Locale.ROOT, turns ? "%.2f" : "%.3f", value));
+            }
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Creates a Pokemon of the given species at the simulated level, knowing a freshly drawn set of abilities.
+     */
+    Combatant createCombatant(Species species, SplittableRandom random) {
+        Combatant combatant = new Combatant(species);
+        for (AbilityDefinition ability : Pokedex.rollAbilities(species, random)) {
+            combatant.addAbility(new Ability(ability, ability.levelRequirement() <= 1));
+        }
+        while (combatant.getLevel() < this.level) {
+            combatant.levelUp();
+        }
+        return combatant;
+    }
+
+    /**
+     * Simulates the battles of a range of species pairs, splitting the range until it is small enough.
+     * Every pair is only written by one task, so the result arrays need no synchronization.
+     */
+    private final class PairTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        private PairTask(int from, int to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (this.to - this.from > PAIRS_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                PairTask left = new PairTask(this.from, middle, this.random.split());
+                PairTask right = new PairTask(middle, this.to, this.random.split());
+                left.fork();
+                long[] usage = right.compute();
+                long[] leftUsage = left.join();
+                for (int i = 0; i < usage.length; i++) {
+                    usage[i] += leftUsage[i];
+                }
+                return usage;
+            }
+
+            BattleEngine engine = new BattleEngine(this.random);
+            int count = BalanceSimulator.this.species.length;
+            for (int pair = this.from; pair < this.to; pair++) {
+                Species species = BalanceSimulator.this.species[pair / count];
+                Species opponent = BalanceSimulator.this.species[pair % count];
+                for (int battle = 0; battle < BalanceSimulator.this.battles; battle++) {
+                    Combatant combatant = BalanceSimulator.this.createCombatant(species, this.random);
+                    Combatant enemy = BalanceSimulator.this.createCombatant(opponent, this.random);
+                    // Alternate who moves first, acting first is an advantage on its own.
+                    boolean first = battle % 2 == 0;
+                    BattleEngine.Outcome outcome = first
+                            ? engine.simulate(combatant, enemy, BalanceSimulator.this.maxTurns)
+                            : engine.simulate(enemy, combatant, BalanceSimulator.this.maxTurns);
+                    if (outcome == BattleEngine.Outcome.DRAW) {
+                        BalanceSimulator.this.draws[pair]++;
+                        continue;
+                    }
+                    if ((outcome == BattleEngine.Outcome.FIRST_WINS) == first) {
+                        BalanceSimulator.this.wins[pair]++;
+                    }
+                    BalanceSimulator.this.turnsToFaint[pair] += engine.getTurnCount() + 1;
+                }
+            }
+
+            long[] usage = new long[Effect.values().length];
+            for (Effect effect : Effect.values()) {
+                usage[effect.ordinal()] = engine.getEffectUsage(effect);
+            }
+            return usage;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.mygdx.game.battle;
+
+import com.mygdx.game.ability.Ability;
+
+/**
+ * Strategy choosing the ability a computer controlled Combatant uses in its turn.
+ */
+public interface BattleAI {
+    /**
+     * Chooses the ability to use against an opponent. Only available abilities may be chosen.
+     *
+     * @param self     The Combatant whose turn it is.
+     * @param opponent The Combatant it fights against.
+     * @return The chosen Ability, or null if none of the abilities is available.
+     */
+    Ability chooseAbility(Combatant self, Combatant opponent);
+}
@@ -0,0 +1,179 @@
+package com.mygdx.game.battle;
+
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.item.Effect;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The rules of a battle, applied to plain Combatants.
+ * The engine does not depend on rendering or on the player, so it can run without a libGDX application;
+ * the BattleController drives it for the game and simulations can drive it directly.
+ * All randomness comes from the generator given to the engine, so a seeded generator makes battles reproducible.
+ */
+public class BattleEngine {
+    private final RandomGenerator random;
+    private final long[] effectUsage;
+    private final TurnScheduler<Ability> cooldowns;
+    private final TurnScheduler.ExpiryListener<Ability> cooldownEnded;
+    private int turnCount;
+
+    /**
+     * Constructs a new BattleEngine.
+     *
+     * @param random The random generator used for damage rolls and random ability choices.
+     */
+    public BattleEngine(RandomGenerator random) {
+        this.random = random;
+        this.effectUsage = new long[Effect.values().length];
+        this.cooldowns = new TurnScheduler<>();
+        this.cooldownEnded = ability -> ability.setCoolingDown(false);
+        this.turnCount = 0;
+    }
+
+    /**
+     * Combatant uses an Ability on another Combatant.
+     * An ability with a cooldown cannot be used again until its cooldown in turns has passed.
+     *
+     * @param ability The Ability being used.
+     * @param source  The Combatant that is using the Ability.
+     * @param target  The Combatant that is being attacked.
+     * @return False if the ability is not unlocked or still cooling down and nothing happened, true otherwise.
+     */
+    public boolean attack(Ability ability, Combatant source, Combatant target) {
+        if (!ability.isAvailable()) {
+            return false;
+        }
+        if (ability.getCooldown() > 0) {
+            ability.setCoolingDown(true);
+            this.cooldowns.schedule(ability, ability.getCooldown() + 1);
+        }
+        this.effectUsage[ability.getEffect().ordinal()]++;
+        switch (ability.getEffect()) {
+            case NONE: {
+                double effectiveness = source.getType().getEffectiveness(target.getType());
+                target.decreaseHP((int) (ability.getEffect().getAmount(ability, this.random) * effectiveness));
+                break;
+            }
+            case HEAL: {
+                source.increaseHP(ability.getEffect().getAmount(ability, this.random));
+                break;
+            }
+            case BUFF_ATTACK: {
+                source.increaseATT(ability.getEffect().getAmount(ability, this.random));
+                break;
+            }
+            case BUFF_DEFENSE: {
+                source.increaseDEF(ability.getEffect().getAmount(ability, this.random));
+                break;
+            }
+            case BUFF_SPEED: {
+                source.increaseSPD(ability.getEffect().getAmount(ability, this.random));
+                break;
+            }
+            default: {
+                target.addStatusEffect(ability.getEffect(), ability.getEffect().getDuration(ability), ability.getEffect().getAmount(ability, this.random));
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Picks one of the available abilities of a Combatant uniformly at random.
+     *
+     * @param combatant The Combatant choosing an ability.
+     * @return The chosen Ability, or null if none of the abilities of the Combatant is available.
+     */
+    public Ability chooseRandomAbility(Combatant combatant) {
+        int available = combatant.getNumOfAvailableAbilities();
+        if (available == 0) {
+            return null;
+        }
+        return combatant.getAvailableAbility(this.random.nextInt(available));
+    }
+
+    /**
+     * Advances the battle to the next turn, resolving the status effects of both combatants at the turn boundary.
+     *
+     * @param first  The combatant acting first.
+     * @param second The combatant acting second.
+     */
+    public void nextTurn(Combatant first, Combatant second) {
+        first.tickStatusEffects();
+        second.tickStatusEffects();
+        this.cooldowns.advance(this.cooldownEnded);
+        this.turnCount++;
+    }
+
+    /**
+     * Starts a new battle, counting turns from zero again. Every ability cooling down becomes available again;
+     * the effect usage keeps counting.
+     */
+    public void reset() {
+        this.cooldowns.clear(this.cooldownEnded);
+        this.turnCount = 0;
+    }
+
+    public int getTurnCount() {
+        return this.turnCount;
+    }
+
+    /**
+     * Returns how often abilities with the given effect have been used since the engine was created.
+     *
+     * @param effect The effect to look up.
+     * @return The number of uses.
+     */
+    public long getEffectUsage(Effect effect) {
+        return this.effectUsage[effect.ordinal()];
+    }
+
+    /**
+     * Simulates a whole battle in which both combatants use a random ability every turn.
+     * Like in the game, the first combatant acts first in every turn. The combatants are modified.
+     *
+     * @param first    The combatant acting first, the player's Pokemon in the game.
+     * @param second   The combatant acting second, the enemy Pokemon in the game.
+     * @param maxTurns The number of turns after which the battle is a draw.
+     * @return The outcome of the battle.
+     */
+    public Outcome simulate(Combatant first, Combatant second, int maxTurns) {
+        this.reset();
+        while (this.turnCount < maxTurns) {
+            Ability ability = this.chooseRandomAbility(first);
+            if (ability != null) {
+                this.attack(ability, first, second);
+            }
+            if (second.hasFainted()) {
+                return Outcome.FIRST_WINS;
+            }
+
+            ability = this.chooseRandomAbility(second);
+            if (ability != null) {
+                this.attack(ability, second, first);
+            }
+            if (first.hasFainted()) {
+                return Outcome.SECOND_WINS;
+            }
+
+            this.nextTurn(first, second);
+            if (second.hasFainted()) {
+                return Outcome.FIRST_WINS;
+            }
+            if (first.hasFainted()) {
+                return Outcome.SECOND_WINS;
+            }
+        }
+        return Outcome.DRAW;
+    }
+
+    /**
+     * The possible outcomes of a simulated battle.
+     */
+    public enum Outcome {
+        FIRST_WINS,
+        SECOND_WINS,
+        DRAW
+    }
+}
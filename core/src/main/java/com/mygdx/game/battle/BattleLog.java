@@ -0,0 +1,204 @@
+package com.mygdx.game.battle;
+
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.ability.AbilityDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Records a battle as a stream of events, so it can be replayed exactly by a {@link BattleReplay}.
+ * <p>
+ * When a battle begins, the seed of its random generator and the Combatants of the party and the enemy are written
+ * into the header. Every action is then recorded as an event of {@value #EVENT_SIZE} bytes into a preallocated ring buffer
+ * of {@value #CAPACITY} events, so recording allocates nothing. An event holds its {@link EventType}, the turn,
+ * the subject (the index of a Pokemon in the party or {@link #ENEMY}) and three ints whose meaning depends on the type.
+ * A battle longer than the ring buffer loses its first events and can no longer be replayed.
+ * <p>
+ * The file written by {@link #write(OutputStream)} starts with {@link #MAGIC} and {@link #VERSION}, followed by
+ * the seed, the header and the events from oldest to newest. All numbers are big endian.
+ */
+public class BattleLog {
+    /**
+     * The subject of the events about the enemy Pokemon; the Pokemon of the party are subjects 0 to 5.
+     */
+    public static final int ENEMY = 6;
+    public static final int MAGIC = 0x50424C47;
+    public static final int VERSION = 1;
+    public static final int EVENT_SIZE = 16;
+    private static final int CAPACITY = 4096;
+    private final ByteBuffer events;
+    private final ByteArrayOutputStream header;
+    private final DataOutputStream headerOut;
+    private long seed;
+    private long count;
+
+    /**
+     * Constructs a new empty BattleLog.
+     */
+    public BattleLog() {
+        this.events = ByteBuffer.allocate(CAPACITY * EVENT_SIZE);
+        this.header = new ByteArrayOutputStream();
+        this.headerOut = new DataOutputStream(this.header);
+    }
+
+    /**
+     * Begins the log of a new battle, discarding the previous one.
+     *
+     * @param seed     The seed of the random generator of the BattleEngine for this battle.
+     * @param party    The Combatants of the Pokemon in the party, in party order.
+     * @param selected The index of the Pokemon in the party that fights first.
+     * @param enemy    The Combatant of the enemy Pokemon.
+     */
+    public void begin(long seed, Combatant[] party, int selected, Combatant enemy) {
+        this.seed = seed;
+        this.count = 0;
+        this.header.reset();
+        try {
+            this.headerOut.writeByte(party.length);
+            this.headerOut.writeByte(selected);
+            for (Combatant combatant : party) {
+                writeCombatant(this.headerOut, combatant);
+            }
+            writeCombatant(this.headerOut, enemy);
+        } catch (IOException e) {
+            // Writing into a ByteArrayOutputStream does not fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeCombatant(DataOutputStream out, Combatant combatant) throws IOException {
+        out.writeUTF(combatant.getName());
+        out.writeUTF(combatant.getType().getName());
+        out.writeInt(combatant.getLevel());
+        out.writeInt(combatant.getHealth());
+        out.writeInt(combatant.getMaxHealth());
+        out.writeInt(combatant.getAttack());
+        out.writeInt(combatant.getDefense());
+        out.writeInt(combatant.getSpeed());
+        out.writeBoolean(combatant.hasFainted());
+        out.writeByte(combatant.getNumOfAbilities());
+        for (Ability ability : combatant.getAbilities()) {
+            AbilityDefinition definition = ability.getDefinition();
+            out.writeUTF(definition.name());
+            out.writeUTF(definition.type().getName());
+            out.writeInt(definition.cooldown());
+            out.writeInt(definition.duration());
+            out.writeInt(definition.power());
+            out.writeInt(definition.levelRequirement());
+            out.writeUTF(definition.effect().name());
+            out.writeBoolean(ability.isUnlocked());
+        }
+    }
+
+    /**
+     * Records an event, overwriting the oldest event once the ring buffer is full.
+     *
+     * @param type    The type of the event.
+     * @param turn    The turn of the battle.
+     * @param subject The index of the Pokemon in the party, or {@link #ENEMY}.
+     * @param a       The first value, see {@link EventType}.
+     * @param b       The second value.
+     * @param c       The third value.
+     */
+    public void record(EventType type, int turn, int subject, int a, int b, int c) {
+        int position = (int) (this.count++ % CAPACITY) * EVENT_SIZE;
+        this.events.put(position, (byte) type.ordinal());
+        this.events.put(position + 1, (byte) subject);
+        this.events.putShort(position + 2, (short) Math.min(turn, Short.MAX_VALUE));
+        this.events.putInt(position + 4, a);
+        this.events.putInt(position + 8, b);
+        this.events.putInt(position + 12, c);
+    }
+
+    /**
+     * Writes the log of the current battle.
+     *
+     * @param out The stream to write to, which is not closed.
+     * @throws IOException If the stream could not be written
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(this.seed);
+        data.writeBoolean(this.isTruncated());
+        data.writeInt(this.header.size());
+        this.header.writeTo(data);
+
+        int stored = (int) Math.min(this.count, CAPACITY);
+        data.writeInt(stored);
+        for (long i = this.count - stored; i < this.count; i++) {
+            data.write(this.events.array(), (int) (i % CAPACITY) * EVENT_SIZE, EVENT_SIZE);
+        }
+        data.flush();
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns the number of events recorded in the current battle, including the ones overwritten in the ring buffer.
+     *
+     * @return The number of events
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns whether the first events of the battle have been overwritten, which makes the battle impossible to replay.
+     *
+     * @return true if events were lost
+     */
+    public boolean isTruncated() {
+        return this.count > CAPACITY;
+    }
+
+    /**
+     * The types of recorded events and the meaning of their values.
+     */
+    public enum EventType {
+        /**
+         * The subject used an ability. a: the index of the ability, b: the health of the target afterwards,
+         * c: the health of the subject afterwards.
+         */
+        ATTACK,
+        /**
+         * The player switched to the subject.
+         */
+        SWITCH,
+        /**
+         * An item was used on the subject. a, b and c: the change of its health, attack and defense.
+         */
+        ITEM,
+        /**
+         * The turn ended and the status effects ticked. The subject is the Pokemon of the player.
+         * a: its health afterwards, b: the health of the enemy afterwards.
+         */
+        TICK,
+        /**
+         * The player tried to catch the enemy. a: 1 if it was caught, 0 otherwise.
+         * The attempt is drawn from the catch stream and not from the seed of the battle, so a replay cannot
+         * reproduce it; it only checks that the enemy had fainted and takes the result as recorded.
+         */
+        CATCH,
+        /**
+         * The battle ended. a: the ordinal of the {@link Outcome}.
+         */
+        END
+    }
+
+    /**
+     * The ways a battle can end.
+     */
+    public enum Outcome {
+        WON,
+        LOST,
+        RAN
+    }
+}
@@ -0,0 +1,236 @@
+package com.mygdx.game.battle;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.RandomXS128;
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.ability.AbilityDefinition;
+import com.mygdx.game.item.Effect;
+import com.mygdx.game.pokemon.PokemonType;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Replays a battle written by a {@link BattleLog}.
+ * The Combatants are rebuilt from the header and a BattleEngine is seeded with the seed of the battle, then every
+ * recorded action is applied again. Because the engine draws the same numbers in the same order, the replay
+ * reproduces the battle exactly; the health recorded with every event is compared to the replayed health to find
+ * the first event where the game and the replay diverge.
+ * <p>
+ * Can be used as a command line tool: {@code BattleReplay [--assets <dir>] <file>} prints every event and the result.
+ */
+public final class BattleReplay {
+    private final long seed;
+    private final boolean truncated;
+    private final Combatant[] party;
+    private final int firstSelected;
+    private final Combatant enemy;
+    private final ByteBuffer events;
+    private final int eventCount;
+
+    private BattleReplay(long seed, boolean truncated, Combatant[] party, int firstSelected, Combatant enemy, ByteBuffer events, int eventCount) {
+        this.seed = seed;
+        this.truncated = truncated;
+        this.party = party;
+        this.firstSelected = firstSelected;
+        this.enemy = enemy;
+        this.events = events;
+        this.eventCount = eventCount;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String assets = ".";
+        String file = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--assets") && i + 1 < args.length) {
+                assets = args[++i];
+            } else {
+                file = args[i];
+            }
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("Usage: BattleReplay [--assets <dir>] <file>");
+        }
+
+        PokemonType.loadEffectiveness(new FileHandle(new File(assets, "types.json")));
+        BattleReplay replay;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            replay = read(in);
+        }
+        Result result = replay.replay(true);
+        if (result.divergedAt() >= 0) {
+            System.out.println("Replay diverged at event " + result.divergedAt() + " of " + result.events());
+        } else {
+            System.out.println("Replayed " + result.events() + " events, outcome " + result.outcome());
+        }
+    }
+
+    /**
+     * Reads a battle log.
+     *
+     * @param in The stream to read from, which is not closed.
+     * @return The replay of the battle
+     * @throws IOException If the stream could not be read or is not a battle log of a supported version
+     */
+    public static BattleReplay read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != BattleLog.MAGIC) {
+            throw new IOException("Not a battle log");
+        }
+        int version = data.readInt();
+        if (version != BattleLog.VERSION) {
+            throw new IOException("Unsupported battle log version " + version);
+        }
+        long seed = data.readLong();
+        boolean truncated = data.readBoolean();
+        data.readInt(); // Size of the header
+
+        Combatant[] party = new Combatant[data.readUnsignedByte()];
+        int selected = data.readUnsignedByte();
+        for (int i = 0; i < party.length; i++) {
+            party[i] = readCombatant(data);
+        }
+        Combatant enemy = readCombatant(data);
+
+        int eventCount = data.readInt();
+        byte[] events = new byte[eventCount * BattleLog.EVENT_SIZE];
+        data.readFully(events);
+        return new BattleReplay(seed, truncated, party, selected, enemy, ByteBuffer.wrap(events), eventCount);
+    }
+
+    private static Combatant readCombatant(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        PokemonType type = PokemonType.fromName(in.readUTF());
+        int level = in.readInt();
+        int health = in.readInt();
+        int maxHealth = in.readInt();
+        int attack = in.readInt();
+        int defense = in.readInt();
+        int speed = in.readInt();
+        Combatant combatant = new Combatant(name, type, level, health, maxHealth, attack, defense, speed);
+        combatant.setFainted(in.readBoolean());
+
+        int abilities = in.readUnsignedByte();
+        for (int i = 0; i < abilities; i++) {
+            String abilityName = in.readUTF();
+            PokemonType abilityType = PokemonType.fromName(in.readUTF());
+            int cooldown = in.readInt();
+            int duration = in.readInt();
+            int power = in.readInt();
+            int levelRequirement = in.readInt();
+            Effect effect = Effect.valueOf(in.readUTF());
+            boolean unlocked = in.readBoolean();
+            AbilityDefinition definition = new AbilityDefinition(abilityName, "", abilityType, cooldown, duration, power, levelRequirement, effect);
+            combatant.addAbility(new Ability(definition, unlocked));
+        }
+        return combatant;
+    }
+
+    /**
+     * Applies every recorded event to the Combatants read from the log. A replay can only be run once,
+     * because it modifies the Combatants.
+     *
+     * @param verbose Whether every event is printed
+     * @return The result of the replay
+     * @throws IllegalStateException If the first events of the battle were lost
+     */
+    public Result replay(boolean verbose) {
+        if (this.truncated) {
+            throw new IllegalStateException("The battle was longer than the log, its first events are lost");
+        }
+        BattleEngine engine = new BattleEngine(new RandomXS128(this.seed));
+        int selected = this.firstSelected;
+        BattleLog.Outcome outcome = null;
+
+        for (int i = 0; i < this.eventCount; i++) {
+            int position = i * BattleLog.EVENT_SIZE;
+            BattleLog.EventType type = BattleLog.EventType.values()[this.events.get(position)];
+            int subject = this.events.get(position + 1);
+            int turn = this.events.getShort(position + 2);
+            int a = this.events.getInt(position + 4);
+            int b = this.events.getInt(position + 8);
+            int c = this.events.getInt(position + 12);
+            if (verbose) {
+                System.out.println("Turn " + turn + ": " + type + " " + this.getName(subject) + " " + a + " " + b + " " + c);
+            }
+
+            boolean matches = true;
+            switch (type) {
+                case ATTACK: {
+                    Combatant source = this.getCombatant(subject);
+                    Combatant target = subject == BattleLog.ENEMY ? this.party[selected] : this.enemy;
+                    matches = engine.attack(source.getAbility(a), source, target)
+                            && target.getHealth() == b && source.getHealth() == c;
+                    break;
+                }
+                case SWITCH: {
+                    selected = subject;
+                    break;
+                }
+                case ITEM: {
+                    Combatant combatant = this.getCombatant(subject);
+                    combatant.increaseHP(a);
+                    combatant.increaseATT(b);
+                    combatant.increaseDEF(c);
+                    break;
+                }
+                case TICK: {
+                    engine.nextTurn(this.party[selected], this.enemy);
+                    matches = this.party[selected].getHealth() == a && this.enemy.getHealth() == b;
+                    break;
+                }
+                case CATCH: {
+                    // Whether the Pokemon was caught is drawn from the catch stream, which the seed does not cover.
+                    matches = this.enemy.hasFainted();
+                    break;
+                }
+                case END: {
+                    outcome = BattleLog.Outcome.values()[a];
+                    break;
+                }
+                default: {
+                    break;
+                }
+            }
+            if (!matches) {
+                return new Result(this.eventCount, i, outcome);
+            }
+        }
+        return new Result(this.eventCount, -1, outcome);
+    }
+
+    private Combatant getCombatant(int subject) {
+        return subject == BattleLog.ENEMY ? this.enemy : this.party[subject];
+    }
+
+    private String getName(int subject) {
+        return subject == BattleLog.ENEMY ? "enemy " + this.enemy.getName() : this.party[subject].getName();
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    public Combatant getEnemy() {
+        return this.enemy;
+    }
+
+    public Combatant getPartyCombatant(int index) {
+        return this.party[index];
+    }
+
+    /**
+     * The result of a replay.
+     *
+     * @param events     The number of events in the log
+     * @param divergedAt The index of the first event the replay could not reproduce, -1 if it reproduced all of them
+     * @param outcome    The outcome of the battle, null if the log ends before the battle ended
+     */
+    public record Result(int events, int divergedAt, BattleLog.Outcome outcome) {
+    }
+}
@@ -0,0 +1,360 @@
+package com.mygdx.game.battle;
+
+import com.badlogic.gdx.utils.Null;
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.item.Effect;
+import com.mygdx.game.pokemon.PokemonType;
+import com.mygdx.game.pokemon.Species;
+
+import java.util.ArrayList;
+
+/**
+ * The battle-relevant state of a Pokemon: its type, level, stats, abilities and status effects.
+ * A Combatant is plain data without any rendering, so battles can be resolved by the BattleEngine
+ * without a libGDX application. Every Pokemon owns a Combatant; simulations can also create them directly.
+ */
+public class Combatant {
+    private final String name;
+    private final PokemonType type;
+    private final ArrayList<Ability> abilities;
+    private final StatusEffects statusEffects;
+    private int level;
+    private int health;
+    private int maxHealth;
+    private int attack;
+    private int defense;
+    private int speed;
+    private boolean fainted;
+    private ChangeListener changeListener;
+
+    /**
+     * Constructs a new Combatant with the given stats and no abilities.
+     *
+     * @param name      The name of the combatant, usually the name of its species.
+     * @param type      The type of the combatant.
+     * @param level     The level of the combatant.
+     * @param health    The current health of the combatant.
+     * @param maxHealth The maximum health of the combatant.
+     * @param attack    The attack power of the combatant.
+     * @param defense   The defense power of the combatant.
+     * @param speed     The speed of the combatant.
+     */
+    public Combatant(String name, PokemonType type, int level, int health, int maxHealth, int attack, int defense, int speed) {
+        this.name = name;
+        this.type = type;
+        this.level = level;
+        this.health = health;
+        this.maxHealth = maxHealth;
+        this.attack = attack;
+        this.defense = defense;
+        this.speed = speed;
+        this.abilities = new ArrayList<>();
+        this.statusEffects = new StatusEffects();
+        this.fainted = false;
+    }
+
+    /**
+     * Constructs a new level 1 Combatant with the base stats of a species.
+     *
+     * @param species The species of the combatant.
+     */
+    public Combatant(Species species) {
+        this(species.name(), species.type(), 1, species.baseHealth(), species.baseHealth(), species.baseAttack(), species.baseDefense(), species.baseSpeed());
+    }
+
+    /**
+     * Copy constructor for a Combatant. Abilities are copied, status effects are not.
+     *
+     * @param original The Combatant to copy.
+     */
+    public Combatant(Combatant original) {
+        this(original.name, original.type, original.level, original.health, original.maxHealth, original.attack, original.defense, original.speed);
+        this.fainted = original.fainted;
+        for (Ability ability : original.abilities) {
+            this.abilities.add(ability.copy());
+        }
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public PokemonType getType() {
+        return this.type;
+    }
+
+    public int getLevel() {
+        return this.level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+        this.changed();
+    }
+
+    /**
+     * Raises the level by one, unlocking the abilities that now meet their level requirement
+     * and increasing every stat by 2%. The combatant is fully healed.
+     */
+    public void levelUp() {
+        this.level++;
+        for (Ability ability : this.abilities) {
+            if (this.level >= ability.getLvlReq()) {
+                ability.unlock();
+            }
+        }
+        this.setMaxHealth((int) (this.maxHealth + 1 / 50f * this.maxHealth));
+        this.attack = (int) (this.attack + 1 / 50f * this.attack);
+        this.defense = (int) (this.defense + 1 / 50f * this.defense);
+        this.speed = (int) (this.speed + 1 / 50f * this.speed);
+        this.changed();
+    }
+
+    /**
+     * Increases the health by the given amount, up to the maximum health.
+     *
+     * @param hp The amount of health to increase by.
+     */
+    public void increaseHP(int hp) {
+        if (this.health + hp <= this.maxHealth) {
+            this.health += hp;
+        } else {
+            this.health = this.maxHealth;
+        }
+        this.changed();
+    }
+
+    /**
+     * Decreases the health by the given amount. The combatant faints once its health reaches 0.
+     *
+     * @param hp The amount of health to decrease by.
+     */
+    public void decreaseHP(int hp) {
+        this.health -= hp;
+        if (this.health <= 0) {
+            this.fainted = true;
+            this.health = 0;
+        }
+        this.changed();
+    }
+
+    public void increaseATT(int attack) {
+        this.attack += attack;
+        this.changed();
+    }
+
+    public void increaseDEF(int defense) {
+        this.defense += defense;
+        this.changed();
+    }
+
+    public void increaseSPD(int speed) {
+        this.speed += speed;
+        this.changed();
+    }
+
+    public void decreaseATT(int attack) {
+        this.attack -= attack;
+        this.changed();
+    }
+
+    public void decreaseDEF(int defense) {
+        this.defense -= defense;
+        this.changed();
+    }
+
+    public void decreaseSPD(int speed) {
+        this.speed -= speed;
+        this.changed();
+    }
+
+    public int getHealth() {
+        return this.health;
+    }
+
+    public int getMaxHealth() {
+        return this.maxHealth;
+    }
+
+    /**
+     * Sets the maximum health and fully heals the combatant.
+     *
+     * @param health The new maximum health.
+     */
+    public void setMaxHealth(int health) {
+        this.maxHealth = health;
+        this.health = health;
+        this.changed();
+    }
+
+    /**
+     * Heals the combatant to full health.
+     */
+    public void heal() {
+        this.health = this.maxHealth;
+        this.changed();
+    }
+
+    public int getAttack() {
+        return this.attack;
+    }
+
+    public void setAttack(int attack) {
+        this.attack = attack;
+        this.changed();
+    }
+
+    public int getDefense() {
+        return this.defense;
+    }
+
+    public void setDefense(int defense) {
+        this.defense = defense;
+        this.changed();
+    }
+
+    public int getSpeed() {
+        return this.speed;
+    }
+
+    public void setSpeed(int speed) {
+        this.speed = speed;
+        this.changed();
+    }
+
+    public boolean hasFainted() {
+        return this.fainted;
+    }
+
+    public void setFainted(boolean fainted) {
+        this.fainted = fainted;
+        this.changed();
+    }
+
+    public void addAbility(Ability ability) {
+        this.abilities.add(ability);
+        this.changed();
+    }
+
+    public Ability getAbility(int index) {
+        return this.abilities.get(index);
+    }
+
+    public int getNumOfAbilities() {
+        return this.abilities.size();
+    }
+
+    public Iterable<Ability> getAbilities() {
+        return this.abilities;
+    }
+
+    /**
+     * Returns the number of abilities that can be used now. Together with {@link #getAvailableAbility(int)}
+     * this is a view of the available abilities that needs no list.
+     *
+     * @return The number of unlocked abilities that are not cooling down.
+     */
+    public int getNumOfAvailableAbilities() {
+        int available = 0;
+        for (int i = 0; i < this.abilities.size(); i++) {
+            if (this.abilities.get(i).isAvailable()) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Returns an ability that can be used now.
+     *
+     * @param index The index among the available abilities, in the order the abilities were added.
+     * @return The available Ability at the index.
+     * @throws IndexOutOfBoundsException If there are not that many available abilities.
+     */
+    public Ability getAvailableAbility(int index) {
+        int remaining = index;
+        for (int i = 0; i < this.abilities.size(); i++) {
+            Ability ability = this.abilities.get(i);
+            if (ability.isAvailable() && remaining-- == 0) {
+                return ability;
+            }
+        }
+        throw new IndexOutOfBoundsException("No available ability at index " + index);
+    }
+
+    public boolean hasAbility(Ability ability) {
+        return this.abilities.contains(ability);
+    }
+
+    /**
+     * Applies a status effect for a number of turns. An effect that is already active is refreshed instead of stacked.
+     *
+     * @param effect    The effect to apply.
+     * @param turns     The number of turns the effect lasts, at least 1.
+     * @param magnitude The damage per turn or the stat reduction of the effect.
+     * @see StatusEffects
+     */
+    public void addStatusEffect(Effect effect, int turns, int magnitude) {
+        this.statusEffects.apply(this, effect, turns, magnitude);
+        this.changed();
+    }
+
+    /**
+     * Resolves the status effects at the end of a turn: damage over time is dealt and expired effects are removed.
+     */
+    public void tickStatusEffects() {
+        if (this.statusEffects.size() > 0) {
+            this.statusEffects.tick(this);
+            this.changed();
+        }
+    }
+
+    /**
+     * Removes every status effect, giving back the stats they lowered. Called when a battle ends.
+     */
+    public void clearStatusEffects() {
+        if (this.statusEffects.size() > 0) {
+            this.statusEffects.clear(this);
+            this.changed();
+        }
+    }
+
+    public boolean hasStatusEffect(Effect effect) {
+        return this.statusEffects.isActive(effect);
+    }
+
+    public StatusEffects getStatusEffects() {
+        return this.statusEffects;
+    }
+
+    public int getNumOfStatusEffects() {
+        return this.statusEffects.size();
+    }
+
+    /**
+     * Sets the listener that is notified whenever the level, the stats, the abilities or the status effects change.
+     *
+     * @param changeListener The listener, or null to remove the current listener
+     */
+    public void setChangeListener(@Null ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    private void changed() {
+        if (this.changeListener != null) {
+            this.changeListener.combatantChanged(this);
+        }
+    }
+
+    /**
+     * Listener notified when the state of a Combatant changes.
+     */
+    public interface ChangeListener {
+        /**
+         * Called after the state of the Combatant has changed.
+         *
+         * @param combatant The Combatant that changed
+         */
+        void combatantChanged(Combatant combatant);
+    }
+}
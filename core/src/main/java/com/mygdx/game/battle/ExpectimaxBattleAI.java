@@ -0,0 +1,456 @@
+package com.mygdx.game.battle;
+
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.item.Effect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Chooses abilities with an expectimax search over the following turns of the battle.
+ * <p>
+ * The search maximizes over the abilities of the computer controlled Combatant and takes the expectation over
+ * the abilities of the opponent, which is assumed to choose uniformly, and over the rolls of
+ * {@link Effect#getAmount(Ability, java.util.random.RandomGenerator)}, approximated by three equally likely amounts.
+ * Damage is scaled by {@link com.mygdx.game.pokemon.PokemonType#getEffectiveness(com.mygdx.game.pokemon.PokemonType)},
+ * poison and burn deal damage at every turn boundary and abilities cool down like in the BattleEngine.
+ * The BattleEngine does not use attack, defense or speed for damage, so buffs and the effects lowering stats
+ * are neutral in the search.
+ * <p>
+ * The search deepens one turn at a time until {@value #MAX_DEPTH} turns or the time budget is reached, and the choice
+ * of the deepest completed search is used. The abilities at the root are searched in parallel on the common fork/join
+ * pool when more than one core is available, sharing a lock-free {@link TranspositionTable}.
+ * As long as the budget allows the full depth, the same battle state always leads to the same choice.
+ */
+public class ExpectimaxBattleAI implements BattleAI {
+    /**
+     * The default time budget per decision, half of a frame at 60 frames per second.
+     */
+    public static final long DEFAULT_BUDGET_NANOS = 8_000_000L;
+    private static final int MAX_DEPTH = 4;
+    private static final int MAX_ABILITIES = 8;
+    private static final int TABLE_SIZE_BITS = 16;
+    private static final int NODES_PER_CLOCK_CHECK = 64;
+    private static final float[] ROLLS = {-1 / 3f, 0, 1 / 3f};
+    private static final float WIN = 2;
+    private static final float DEPTH_BONUS = 0.01f;
+
+    // Layout of a side in a state array
+    private static final int HEALTH = 0;
+    private static final int MAX_HEALTH = 1;
+    private static final int POISON = 2;
+    private static final int POISON_TURNS = 3;
+    private static final int BURN = 4;
+    private static final int BURN_TURNS = 5;
+    private static final int COOLDOWNS = 6;
+    private static final int SIDE_SIZE = COOLDOWNS + MAX_ABILITIES;
+    private static final int SELF = 0;
+    private static final int OPPONENT = SIDE_SIZE;
+    private static final int STATE_SIZE = 2 * SIDE_SIZE;
+
+    private final long budgetNanos;
+    private final boolean parallel;
+    private final TranspositionTable table;
+    private int lastDepth;
+    private long lastNodes;
+
+    /**
+     * Constructs a new ExpectimaxBattleAI.
+     *
+     * @param budgetNanos The time in nanoseconds a decision may take.
+     */
+    public ExpectimaxBattleAI(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+        this.parallel = ForkJoinPool.getCommonPoolParallelism() > 1;
+        this.table = new TranspositionTable(TABLE_SIZE_BITS);
+    }
+
+    @Override
+    public Ability chooseAbility(Combatant self, Combatant opponent) {
+        long deadline = System.nanoTime() + this.budgetNanos;
+        Side selfSide = new Side(self, opponent);
+        Side opponentSide = new Side(opponent, self);
+        int[] root = new int[STATE_SIZE];
+        selfSide.write(root, SELF, self);
+        opponentSide.write(root, OPPONENT, opponent);
+
+        int moves = 0;
+        int[] rootMoves = new int[selfSide.count];
+        for (int i = 0; i < selfSide.count; i++) {
+            if (isAvailable(root, SELF, selfSide, i)) {
+                rootMoves[moves++] = i;
+            }
+        }
+        if (moves == 0) {
+            return null;
+        }
+
+        this.table.clear();
+        this.lastDepth = 0;
+        this.lastNodes = 0;
+        int best = rootMoves[0];
+        if (moves > 1) {
+            for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+                float[] values = this.searchRoot(root, rootMoves, moves, depth, selfSide, opponentSide, deadline);
+                if (values == null) {
+                    break;
+                }
+                best = rootMoves[0];
+                for (int i = 1; i < moves; i++) {
+                    if (values[i] > values[0]) {
+                        values[0] = values[i];
+                        best = rootMoves[i];
+                    }
+                }
+                this.lastDepth = depth;
+            }
+        }
+        return self.getAbility(best);
+    }
+
+    /**
+     * Searches every root move to the given depth.
+     *
+     * @return The value of every move, or null if the time budget ran out before the search completed.
+     */
+    private float[] searchRoot(int[] root, int[] rootMoves, int moves, int depth, Side selfSide, Side opponentSide, long deadline) {
+        float[] values = new float[moves];
+        Search[] searches = new Search[moves];
+        for (int i = 0; i < moves; i++) {
+            searches[i] = new Search(selfSide, opponentSide, this.table, depth, deadline);
+        }
+
+        if (this.parallel) {
+            List<Callable<Float>> tasks = new ArrayList<>(moves);
+            for (int i = 0; i < moves; i++) {
+                Search search = searches[i];
+                int move = rootMoves[i];
+                tasks.add(() -> search.selfMove(root, move, depth));
+            }
+            try {
+                List<Future<Float>> results = ForkJoinPool.commonPool().invokeAll(tasks);
+                for (int i = 0; i < moves; i++) {
+                    values[i] = results.get(i).get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Battle AI search failed", e.getCause());
+            }
+        } else {
+            for (int i = 0; i < moves; i++) {
+                values[i] = searches[i].selfMove(root, rootMoves[i], depth);
+            }
+        }
+
+        for (Search search : searches) {
+            this.lastNodes += search.nodes;
+            if (search.aborted) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    private static boolean isAvailable(int[] state, int side, Side model, int ability) {
+        return model.unlocked[ability] && state[side + COOLDOWNS + ability] == 0;
+    }
+
+    /**
+     * Returns the number of turns of the deepest search completed by the last decision.
+     *
+     * @return The depth, 0 if there was only one choice or not even one turn could be searched in time.
+     */
+    public int getLastDepth() {
+        return this.lastDepth;
+    }
+
+    public long getLastNodes() {
+        return this.lastNodes;
+    }
+
+    /**
+     * The abilities of one Combatant, which do not change during a search.
+     */
+    private static final class Side {
+        private final int count;
+        private final Effect[] effects;
+        private final int[] powers;
+        private final int[] durations;
+        private final int[] cooldowns;
+        private final boolean[] unlocked;
+        private final float effectiveness;
+
+        private Side(Combatant combatant, Combatant target) {
+            this.count = Math.min(combatant.getNumOfAbilities(), MAX_ABILITIES);
+            this.effects = new Effect[this.count];
+            this.powers = new int[this.count];
+            this.durations = new int[this.count];
+            this.cooldowns = new int[this.count];
+            this.unlocked = new boolean[this.count];
+            for (int i = 0; i < this.count; i++) {
+                Ability ability = combatant.getAbility(i);
+                this.effects[i] = ability.getEffect();
+                this.powers[i] = ability.getPower();
+                this.durations[i] = ability.getDuration();
+                this.cooldowns[i] = ability.getCooldown();
+                this.unlocked[i] = ability.isUnlocked();
+            }
+            this.effectiveness = (float) combatant.getType().getEffectiveness(target.getType());
+        }
+
+        /**
+         * Writes the current state of the Combatant into a state array. The remaining turns of a cooldown are not
+         * known to the Combatant, an ability cooling down is assumed to be ready after the next turn boundary.
+         */
+        private void write(int[] state, int side, Combatant combatant) {
+            StatusEffects statusEffects = combatant.getStatusEffects();
+            state[side + HEALTH] = combatant.getHealth();
+            state[side + MAX_HEALTH] = Math.max(1, combatant.getMaxHealth());
+            state[side + POISON] = statusEffects.getMagnitude(Effect.POISON);
+            state[side + POISON_TURNS] = statusEffects.getTurnsLeft(Effect.POISON);
+            state[side + BURN] = statusEffects.getMagnitude(Effect.BURN);
+            state[side + BURN_TURNS] = statusEffects.getTurnsLeft(Effect.BURN);
+            for (int i = 0; i < this.count; i++) {
+                state[side + COOLDOWNS + i] = combatant.getAbility(i).isCoolingDown() ? 1 : 0;
+            }
+        }
+    }
+
+    /**
+     * The expectimax search of one root move. Every search owns a stack of state arrays, one per ply,
+     * so searching allocates nothing.
+     */
+    private static final class Search {
+        private final Side self;
+        private final Side opponent;
+        private final TranspositionTable table;
+        private final long deadline;
+        private final int[][] stack;
+        private long nodes;
+        private boolean aborted;
+
+        private Search(Side self, Side opponent, TranspositionTable table, int depth, long deadline) {
+            this.self = self;
+            this.opponent = opponent;
+            this.table = table;
+            this.deadline = deadline;
+            // Two plies per turn, plus the root
+            this.stack = new int[2 * depth + 2][STATE_SIZE];
+        }
+
+        /**
+         * The value of the computer controlled Combatant using an ability, averaged over the rolls of the ability.
+         */
+        private float selfMove(int[] state, int ability, int depth) {
+            int[] child = this.stack[2 * depth + 1];
+            int rolls = rollCount(this.self.effects[ability]);
+            float value = 0;
+            for (int roll = 0; roll < rolls; roll++) {
+                System.arraycopy(state, 0, child, 0, STATE_SIZE);
+                apply(child, SELF, OPPONENT, this.self, ability, rolls == 1 ? 0 : ROLLS[roll]);
+                if (child[OPPONENT + HEALTH] <= 0) {
+                    value += win(depth);
+                } else {
+                    value += this.turnBoundary(child, depth);
+                }
+                if (this.aborted) {
+                    return 0;
+                }
+            }
+            return value / rolls;
+        }
+
+        /**
+         * Resolves the end of a turn like the BattleController: the status effects of the opponent tick first.
+         */
+        private float turnBoundary(int[] state, int depth) {
+            tick(state, OPPONENT);
+            tick(state, SELF);
+            if (state[SELF + HEALTH] <= 0) {
+                return -win(depth);
+            }
+            if (state[OPPONENT + HEALTH] <= 0) {
+                return win(depth);
+            }
+            return this.opponentMove(state, depth);
+        }
+
+        /**
+         * The expected value over the available abilities of the opponent and their rolls.
+         */
+        private float opponentMove(int[] state, int depth) {
+            int[] child = this.stack[2 * depth];
+            float value = 0;
+            int outcomes = 0;
+            for (int ability = 0; ability < this.opponent.count; ability++) {
+                if (!isAvailable(state, OPPONENT, this.opponent, ability)) {
+                    continue;
+                }
+                int rolls = rollCount(this.opponent.effects[ability]);
+                float abilityValue = 0;
+                for (int roll = 0; roll < rolls; roll++) {
+                    System.arraycopy(state, 0, child, 0, STATE_SIZE);
+                    apply(child, OPPONENT, SELF, this.opponent, ability, rolls == 1 ? 0 : ROLLS[roll]);
+                    if (child[SELF + HEALTH] <= 0) {
+                        abilityValue += -win(depth);
+                    } else {
+                        abilityValue += this.selfTurn(child, depth - 1);
+                    }
+                    if (this.aborted) {
+                        return 0;
+                    }
+                }
+                value += abilityValue / rolls;
+                outcomes++;
+            }
+            if (outcomes == 0) {
+                return this.selfTurn(state, depth - 1);
+            }
+            return value / outcomes;
+        }
+
+        /**
+         * The value of the best ability of the computer controlled Combatant, or of the evaluation at depth 0.
+         */
+        private float selfTurn(int[] state, int depth) {
+            if (++this.nodes % NODES_PER_CLOCK_CHECK == 0 && System.nanoTime() > this.deadline) {
+                this.aborted = true;
+                return 0;
+            }
+            if (depth == 0) {
+                return evaluate(state);
+            }
+            long hash = hash(state);
+            float cached = this.table.get(hash, depth);
+            if (!Float.isNaN(cached)) {
+                return cached;
+            }
+
+            float best = Float.NEGATIVE_INFINITY;
+            for (int ability = 0; ability < this.self.count; ability++) {
+                if (isAvailable(state, SELF, this.self, ability)) {
+                    best = Math.max(best, this.selfMove(state, ability, depth));
+                    if (this.aborted) {
+                        return 0;
+                    }
+                }
+            }
+            if (best == Float.NEGATIVE_INFINITY) {
+                int[] child = this.stack[2 * depth + 1];
+                System.arraycopy(state, 0, child, 0, STATE_SIZE);
+                best = this.turnBoundary(child, depth);
+                if (this.aborted) {
+                    return 0;
+                }
+            }
+            this.table.put(hash, depth, best);
+            return best;
+        }
+
+        private static int rollCount(Effect effect) {
+            switch (effect) {
+                case NONE:
+                case HEAL:
+                case POISON:
+                case BURN: {
+                    return ROLLS.length;
+                }
+                default: {
+                    return 1;
+                }
+            }
+        }
+
+        /**
+         * Applies an ability the way the BattleEngine does, with the amount rolled at the given offset.
+         */
+        private static void apply(int[] state, int source, int target, Side model, int ability, float roll) {
+            int power = model.powers[ability];
+            int amount = (int) (power + roll * power / 2);
+            switch (model.effects[ability]) {
+                case NONE: {
+                    state[target + HEALTH] = Math.max(0, state[target + HEALTH] - (int) (amount * model.effectiveness));
+                    break;
+                }
+                case HEAL: {
+                    state[source + HEALTH] = Math.min(state[source + MAX_HEALTH], state[source + HEALTH] + amount);
+                    break;
+                }
+                case POISON: {
+                    state[target + POISON] = Math.max(state[target + POISON], Math.max(amount, 0));
+                    state[target + POISON_TURNS] = Math.max(state[target + POISON_TURNS], Math.max(model.durations[ability], 1));
+                    break;
+                }
+                case BURN: {
+                    state[target + BURN] = Math.max(state[target + BURN], Math.max(amount, 0));
+                    state[target + BURN_TURNS] = Math.max(state[target + BURN_TURNS], Math.max(model.durations[ability], 1));
+                    break;
+                }
+                default: {
+                    break;
+                }
+            }
+            if (model.cooldowns[ability] > 0) {
+                state[source + COOLDOWNS + ability] = model.cooldowns[ability] + 1;
+            }
+        }
+
+        /**
+         * Deals the damage over time of a side, counts its effects and cooldowns down.
+         */
+        private static void tick(int[] state, int side) {
+            if (state[side + POISON_TURNS] > 0) {
+                state[side + HEALTH] = Math.max(0, state[side + HEALTH] - state[side + POISON]);
+                if (--state[side + POISON_TURNS] == 0) {
+                    state[side + POISON] = 0;
+                }
+            }
+            if (state[side + BURN_TURNS] > 0) {
+                state[side + HEALTH] = Math.max(0, state[side + HEALTH] - state[side + BURN]);
+                if (--state[side + BURN_TURNS] == 0) {
+                    state[side + BURN] = 0;
+                }
+            }
+            for (int i = side + COOLDOWNS; i < side + SIDE_SIZE; i++) {
+                if (state[i] > 0) {
+                    state[i]--;
+                }
+            }
+        }
+
+        /**
+         * Scores a state by the difference in the share of health left, after the pending damage over time.
+         */
+        private static float evaluate(int[] state) {
+            return healthShare(state, SELF) - healthShare(state, OPPONENT);
+        }
+
+        private static float healthShare(int[] state, int side) {
+            int pending = state[side + POISON] * state[side + POISON_TURNS] + state[side + BURN] * state[side + BURN_TURNS];
+            return Math.max(0, state[side + HEALTH] - pending) / (float) state[side + MAX_HEALTH];
+        }
+
+        /**
+         * Winning sooner is better than winning later, and losing later is better than losing sooner.
+         */
+        private static float win(int depth) {
+            return WIN + depth * DEPTH_BONUS;
+        }
+
+        private static long hash(int[] state) {
+            long hash = 0;
+            for (int value : state) {
+                hash = (hash + value) * 0x9E3779B97F4A7C15L;
+            }
+            hash ^= hash >>> 31;
+            hash *= 0xBF58476D1CE4E5B9L;
+            return hash ^ hash >>> 29;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.mygdx.game.battle;
+
+import com.mygdx.game.ability.Ability;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses one of the available abilities uniformly at random.
+ */
+public class RandomBattleAI implements BattleAI {
+    private final RandomGenerator random;
+
+    /**
+     * Constructs a new RandomBattleAI.
+     *
+     * @param random The random generator choosing the abilities.
+     */
+    public RandomBattleAI(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public Ability chooseAbility(Combatant self, Combatant opponent) {
+        int available = self.getNumOfAvailableAbilities();
+        if (available == 0) {
+            return null;
+        }
+        return self.getAvailableAbility(this.random.nextInt(available));
+    }
+}
@@ -0,0 +1,155 @@
+package com.mygdx.game.battle;
+
+import com.mygdx.game.item.Effect;
+
+/**
+ * The active status effects of a Combatant.
+ * The active effects are the bits of a single int, indexed by the ordinal of their {@link Effect}, and the remaining
+ * turns and magnitude of every effect kind are kept in two small arrays. Applying an effect that is already active
+ * refreshes it instead of stacking, so the state never grows however long a battle lasts.
+ * <p>
+ * Damage over time is dealt and effects expire in {@link #tick(Combatant)}, which visits only the active effects.
+ * Stat modifiers take hold when an effect is applied and are given back when it expires or is cleared.
+ * <ul>
+ *     <li>POISON and BURN deal their magnitude as damage every turn.</li>
+ *     <li>SHOCK lowers the attack, WET the defense, FREEZE and ENTANGLE the speed by their magnitude.</li>
+ * </ul>
+ */
+public class StatusEffects {
+    private static final Effect[] EFFECTS = Effect.values();
+    private final byte[] turnsLeft;
+    private final short[] magnitudes;
+    private int active;
+
+    /**
+     * Constructs a new StatusEffects without active effects.
+     */
+    public StatusEffects() {
+        this.turnsLeft = new byte[EFFECTS.length];
+        this.magnitudes = new short[EFFECTS.length];
+    }
+
+    /**
+     * Applies an effect to a Combatant. An effect that is already active keeps the longer duration
+     * and the higher magnitude; only the difference in magnitude is taken from the stats.
+     *
+     * @param combatant The Combatant the effects belong to.
+     * @param effect    The effect to apply.
+     * @param turns     The number of turns the effect lasts, at least 1.
+     * @param magnitude The damage per turn or the stat reduction of the effect.
+     */
+    void apply(Combatant combatant, Effect effect, int turns, int magnitude) {
+        int index = effect.ordinal();
+        int previous = this.isActive(effect) ? this.magnitudes[index] : 0;
+        int clampedMagnitude = Math.max(previous, Math.min(Math.max(magnitude, 0), Short.MAX_VALUE));
+        int clampedTurns = Math.min(Math.max(turns, 1), Byte.MAX_VALUE);
+
+        this.active |= 1 << index;
+        this.turnsLeft[index] = (byte) Math.max(this.turnsLeft[index], clampedTurns);
+        this.magnitudes[index] = (short) clampedMagnitude;
+        modifyStat(combatant, effect, previous - clampedMagnitude);
+    }
+
+    /**
+     * Resolves the turn boundary for a Combatant in a single pass over the active effects:
+     * damage over time is dealt, every effect loses a turn and expired effects give their stat reduction back.
+     *
+     * @param combatant The Combatant the effects belong to.
+     */
+    void tick(Combatant combatant) {
+        int remaining = this.active;
+        while (remaining != 0) {
+            int index = Integer.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            Effect effect = EFFECTS[index];
+
+            if (dealsDamage(effect) && !combatant.hasFainted()) {
+                combatant.decreaseHP(this.magnitudes[index]);
+            }
+            if (--this.turnsLeft[index] <= 0) {
+                this.remove(combatant, index);
+            }
+        }
+    }
+
+    /**
+     * Removes every active effect and gives the stat reductions back.
+     *
+     * @param combatant The Combatant the effects belong to.
+     */
+    void clear(Combatant combatant) {
+        int remaining = this.active;
+        while (remaining != 0) {
+            int index = Integer.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            this.remove(combatant, index);
+        }
+    }
+
+    private void remove(Combatant combatant, int index) {
+        modifyStat(combatant, EFFECTS[index], this.magnitudes[index]);
+        this.active &= ~(1 << index);
+        this.turnsLeft[index] = 0;
+        this.magnitudes[index] = 0;
+    }
+
+    private static boolean dealsDamage(Effect effect) {
+        return effect == Effect.POISON || effect == Effect.BURN;
+    }
+
+    private static void modifyStat(Combatant combatant, Effect effect, int amount) {
+        if (amount == 0) {
+            return;
+        }
+        switch (effect) {
+            case SHOCK: {
+                combatant.increaseATT(amount);
+                break;
+            }
+            case WET: {
+                combatant.increaseDEF(amount);
+                break;
+            }
+            case FREEZE:
+            case ENTANGLE: {
+                combatant.increaseSPD(amount);
+                break;
+            }
+            default: {
+                break;
+            }
+        }
+    }
+
+    public boolean isActive(Effect effect) {
+        return (this.active & 1 << effect.ordinal()) != 0;
+    }
+
+    /**
+     * Returns the number of turns an effect is still active.
+     *
+     * @param effect The effect to look up.
+     * @return The remaining turns, 0 if the effect is not active.
+     */
+    public int getTurnsLeft(Effect effect) {
+        return this.turnsLeft[effect.ordinal()];
+    }
+
+    /**
+     * Returns the damage per turn or the stat reduction of an effect.
+     *
+     * @param effect The effect to look up.
+     * @return The magnitude, 0 if the effect is not active.
+     */
+    public int getMagnitude(Effect effect) {
+        return this.magnitudes[effect.ordinal()];
+    }
+
+    public int getActiveMask() {
+        return this.active;
+    }
+
+    public int size() {
+        return Integer.bitCount(this.active);
+    }
+}
@@ -0,0 +1,55 @@
+package com.mygdx.game.battle;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size cache of the values of searched battle states, shared by the threads of a search.
+ * Every entry is one long holding 24 bits of the state hash to tell states apart, the searched depth
+ * and the value as float bits, so entries are written and read atomically without locks.
+ * A newer entry simply replaces an older one in the same slot.
+ */
+class TranspositionTable {
+    private static final long MISSING = 0;
+    private final AtomicLongArray entries;
+    private final int mask;
+
+    /**
+     * Constructs a new empty TranspositionTable.
+     *
+     * @param sizeBits The base 2 logarithm of the number of entries.
+     */
+    TranspositionTable(int sizeBits) {
+        this.entries = new AtomicLongArray(1 << sizeBits);
+        this.mask = (1 << sizeBits) - 1;
+    }
+
+    /**
+     * Looks up the value of a state searched at least as deep as requested.
+     *
+     * @param hash  The hash of the state.
+     * @param depth The requested depth.
+     * @return The value, or NaN if the state is not cached at that depth.
+     */
+    float get(long hash, int depth) {
+        long entry = this.entries.get((int) hash & this.mask);
+        if (entry == MISSING || (entry >>> 40) != check(hash) || ((entry >>> 32) & 0xFF) < depth) {
+            return Float.NaN;
+        }
+        return Float.intBitsToFloat((int) entry);
+    }
+
+    void put(long hash, int depth, float value) {
+        long entry = check(hash) << 40 | (long) (depth & 0xFF) << 32 | (Float.floatToRawIntBits(value) & 0xFFFFFFFFL);
+        this.entries.set((int) hash & this.mask, entry);
+    }
+
+    void clear() {
+        for (int i = 0; i < this.entries.length(); i++) {
+            this.entries.set(i, MISSING);
+        }
+    }
+
+    private static long check(long hash) {
+        return hash >>> 40;
+    }
+}
@@ -0,0 +1,147 @@
+package com.mygdx.game.battle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Schedules entries to expire after a number of turns, such as abilities cooling down.
+ * <p>
+ * The scheduler is a hashed timer wheel: an entry due in turn {@code t} is linked into slot {@code t % SLOT_COUNT},
+ * so advancing a turn only visits the entries of one slot. Entries scheduled more than {@value #SLOT_COUNT} turns ahead
+ * share a slot with earlier ones and stay linked until their turn comes. The entries live in parallel arrays
+ * with a free list, so scheduling and expiring allocate nothing once the arrays have grown to the largest number
+ * of pending entries.
+ *
+ * @param <T> The type of the scheduled entries.
+ */
+public class TurnScheduler<T> {
+    private static final int SLOT_COUNT = 32;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+    private static final int NONE = -1;
+    private final int[] heads;
+    private final ArrayList<T> payloads;
+    private int[] dueTurns;
+    private int[] next;
+    private int free;
+    private int size;
+    private int turn;
+
+    /**
+     * Constructs a new empty TurnScheduler at turn 0.
+     */
+    public TurnScheduler() {
+        this.heads = new int[SLOT_COUNT];
+        Arrays.fill(this.heads, NONE);
+        this.payloads = new ArrayList<>();
+        this.dueTurns = new int[8];
+        this.next = new int[8];
+        this.free = NONE;
+    }
+
+    /**
+     * Schedules an entry to expire a number of turns from now.
+     *
+     * @param payload The entry.
+     * @param turns   The number of turns until the entry expires, at least 1.
+     */
+    public void schedule(T payload, int turns) {
+        int due = this.turn + Math.max(turns, 1);
+        int entry = this.obtainEntry();
+        this.payloads.set(entry, payload);
+        this.dueTurns[entry] = due;
+        this.next[entry] = this.heads[due & SLOT_MASK];
+        this.heads[due & SLOT_MASK] = entry;
+        this.size++;
+    }
+
+    /**
+     * Advances to the next turn and notifies the listener of every entry due in it.
+     * Only the entries sharing the slot of the new turn are visited.
+     *
+     * @param expiryListener The listener notified of the expired entries.
+     */
+    public void advance(ExpiryListener<T> expiryListener) {
+        this.turn++;
+        int slot = this.turn & SLOT_MASK;
+        int previous = NONE;
+        int entry = this.heads[slot];
+        while (entry != NONE) {
+            int following = this.next[entry];
+            if (this.dueTurns[entry] == this.turn) {
+                if (previous == NONE) {
+                    this.heads[slot] = following;
+                } else {
+                    this.next[previous] = following;
+                }
+                T payload = this.release(entry);
+                expiryListener.expired(payload);
+            } else {
+                previous = entry;
+            }
+            entry = following;
+        }
+    }
+
+    /**
+     * Expires every pending entry at once and starts counting turns from 0 again.
+     *
+     * @param expiryListener The listener notified of the expired entries.
+     */
+    public void clear(ExpiryListener<T> expiryListener) {
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            int entry = this.heads[slot];
+            this.heads[slot] = NONE;
+            while (entry != NONE) {
+                int following = this.next[entry];
+                expiryListener.expired(this.release(entry));
+                entry = following;
+            }
+        }
+        this.turn = 0;
+    }
+
+    private int obtainEntry() {
+        if (this.free != NONE) {
+            int entry = this.free;
+            this.free = this.next[entry];
+            return entry;
+        }
+        int entry = this.payloads.size();
+        if (entry == this.dueTurns.length) {
+            this.dueTurns = Arrays.copyOf(this.dueTurns, entry * 2);
+            this.next = Arrays.copyOf(this.next, entry * 2);
+        }
+        this.payloads.add(null);
+        return entry;
+    }
+
+    private T release(int entry) {
+        T payload = this.payloads.set(entry, null);
+        this.next[entry] = this.free;
+        this.free = entry;
+        this.size--;
+        return payload;
+    }
+
+    public int getTurn() {
+        return this.turn;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Listener notified when a scheduled entry expires.
+     *
+     * @param <T> The type of the scheduled entries.
+     */
+    public interface ExpiryListener<T> {
+        /**
+         * Called when the turn of an entry has come.
+         *
+         * @param payload The expired entry.
+         */
+        void expired(T payload);
+    }
+}
@@ -1,9 +1,11 @@
 package com.mygdx.game.character;
 
 import com.badlogic.gdx.graphics.g2d.Batch;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+import com.mygdx.game.asset.AtlasCache;
 import com.mygdx.game.game.Party;
 import com.mygdx.game.item.Inventory;
 import com.mygdx.game.item.Item;
@@ -20,7 +22,8 @@ public class Player extends Actor {
     private final Vector2 velocity;
     private final Pokedex pokedex;
     private final float speed;
-    private final TextureAtlas textureAtlas;
+    private final TextureRegion sprite;
+    private final Array<ChangeListener> changeListeners;
     private int gold;
     private int collectedPokemons;
 
@@ -33,9 +36,13 @@ public class Player extends Actor {
     public Player(String name, Pokedex pokedex) {
         super();
         this.pokedex = pokedex;
-        this.textureAtlas = new TextureAtlas("Atlas/Trainer.atlas");
+        AtlasCache.getInstance().acquire(AtlasCache.TRAINER_ATLAS);
+        this.sprite = AtlasCache.getInstance().findRegion(AtlasCache.TRAINER_ATLAS, "player");
         this.inventory = new Inventory();
         this.party = new Party();
+        this.changeListeners = new Array<>(false, 2);
+        this.party.setChangeListener(party -> this.changed());
+        this.inventory.setChangeListener(inventory -> this.changed());
         this.velocity = new Vector2();
         this.speed = 200;
         this.gold = 0;
@@ -49,7 +56,7 @@ public class Player extends Actor {
 
     @Override
     public void draw(Batch batch, float parentAlpha) {
-        batch.draw(this.textureAtlas.findRegion("player"), this.getX(), this.getY());
+        batch.draw(this.sprite, this.getX(), this.getY());
     }
 
     public int getMaxLvlOfParty() {
@@ -120,9 +127,9 @@ public class Player extends Actor {
      * @param pokemon Pokemon to be collected
      */
     public void collectPokemon(Pokemon pokemon) {
-        this.pokedex.getPokemon(pokemon.getName()).setCollected(true);
-        this.addPokemonToParty(pokemon);
+        this.pokedex.setCollected(pokemon.getName());
         this.collectedPokemons++;
+        this.addPokemonToParty(pokemon);
     }
 
     /**
@@ -140,6 +147,36 @@ public class Player extends Actor {
 
     public void gainGold(int gold) {
         this.gold += gold;
+        this.changed();
+    }
+
+    public int getCollectedPokemons() {
+        return this.collectedPokemons;
+    }
+
+    public void setCollectedPokemons(int collectedPokemons) {
+        this.collectedPokemons = collectedPokemons;
+        this.changed();
+    }
+
+    /**
+     * Adds a listener that is notified whenever the gold, the number of collected Pokemon,
+     * the members of the party or the items in the inventory change.
+     *
+     * @param changeListener The listener to add
+     */
+    public void addChangeListener(ChangeListener changeListener) {
+        this.changeListeners.add(changeListener);
+    }
+
+    public void removeChangeListener(ChangeListener changeListener) {
+        this.changeListeners.removeValue(changeListener, true);
+    }
+
+    private void changed() {
+        for (int i = 0; i < this.changeListeners.size; i++) {
+            this.changeListeners.get(i).playerChanged(this);
+        }
     }
 
     public Iterable<Pokemon> getParty() {
@@ -184,4 +221,16 @@ public class Player extends Actor {
     public Pokemon getPokemon(int i) {
         return this.party.getPokemonByIndex(i);
     }
+
+    /**
+     * Listener notified when the state of the player shown in the HUD changes.
+     */
+    public interface ChangeListener {
+        /**
+         * Called after the state of the player has changed.
+         *
+         * @param player The player that changed
+         */
+        void playerChanged(Player player);
+    }
 }
@@ -1,48 +1,142 @@
 package com.mygdx.game.game;
 
-import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Null;
 import com.mygdx.game.ability.Ability;
+import com.mygdx.game.battle.BattleAI;
+import com.mygdx.game.battle.BattleEngine;
+import com.mygdx.game.battle.BattleLog;
+import com.mygdx.game.battle.Combatant;
+import com.mygdx.game.battle.ExpectimaxBattleAI;
+import com.mygdx.game.battle.RandomBattleAI;
 import com.mygdx.game.character.Player;
 import com.mygdx.game.item.Item;
 import com.mygdx.game.item.Pokeball;
+import com.mygdx.game.item.UsableItem;
 import com.mygdx.game.pokemon.Pokemon;
+import com.mygdx.game.random.RandomService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
 
 /**
  * Class managing combat between the player pokemon and the enemy pokemon.
+ * The rules of the battle are applied by a {@link BattleEngine} on the Combatants of the Pokemon;
+ * this class adds the parts that involve the player, such as switching Pokemon, rewards and catching.
+ * The log of a battle is copied when the battle ends and written to disk on a background thread.
  */
-public class BattleController {
+public class BattleController implements Disposable {
     private final Player player;
-    private final Pokemon enemyPokemon;
+    private final BattleEngine battleEngine;
+    private final RandomGenerator battleSeeds;
+    private final RandomXS128 battleRandom;
+    private final RandomGenerator catchRandom;
+    private final BattleLog battleLog;
+    private final ExecutorService logWriter;
+    private Pokemon[] battleParty;
+    private File logDirectory;
+    private BattleAI enemyAI;
+    private Pokemon enemyPokemon;
     private Pokemon selectedPokemon;
-    private int turnCounter;
     private int currentPlayerPartySize;
     private String attackMessage;
+    private BattleEndListener battleEndListener;
 
     /**
      * Constructs a BattleController object to manage a battle between a Player and an Enemy Pokemon.
      *
      * @param player       The player involved in the battle.
      * @param enemyPokemon The enemy Pokemon involved in the battle.
+     * @param random       The random service; every battle is seeded from its battle stream and catching draws from its catch stream.
      */
-    public BattleController(Player player, Pokemon enemyPokemon) {
+    public BattleController(Player player, Pokemon enemyPokemon, RandomService random) {
         this.player = player;
+        this.battleSeeds = random.get(RandomService.Stream.BATTLE);
+        this.battleRandom = new RandomXS128();
+        this.battleEngine = new BattleEngine(this.battleRandom);
+        this.catchRandom = random.get(RandomService.Stream.CATCH);
+        this.battleLog = new BattleLog();
+        this.logWriter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "battle-log-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.enemyAI = new ExpectimaxBattleAI(ExpectimaxBattleAI.DEFAULT_BUDGET_NANOS);
+        this.start(enemyPokemon);
+    }
+
+    /**
+     * Starts a new battle against another enemy Pokemon, so the controller can be reused for every encounter.
+     * The player's first Pokemon is selected again. The engine is reseeded with a seed of its own for every battle,
+     * which is logged together with the Combatants so the battle can be replayed.
+     * The order of the party is kept for the whole battle, so the logged subjects stay the same
+     * when a change of speed reorders the party.
+     *
+     * @param enemyPokemon The enemy Pokemon involved in the battle.
+     */
+    public void start(Pokemon enemyPokemon) {
         this.enemyPokemon = enemyPokemon;
         this.currentPlayerPartySize = this.player.getPartySize();
-        this.selectedPokemon = player.getFirstPokemon();
+        this.selectedPokemon = this.player.getFirstPokemon();
+        this.battleEngine.reset();
+
+        long seed = this.battleSeeds.nextLong();
+        this.battleRandom.setSeed(seed);
+        this.battleParty = new Pokemon[this.player.getPartySize()];
+        Combatant[] party = new Combatant[this.battleParty.length];
+        int index = 0;
+        for (Pokemon pokemon : this.player.getParty()) {
+            this.battleParty[index] = pokemon;
+            party[index++] = pokemon.getCombatant();
+        }
+        this.battleLog.begin(seed, party, this.getSubject(this.selectedPokemon), this.enemyPokemon.getCombatant());
+    }
+
+    /**
+     * Returns the subject of the events about a Pokemon in the battle log.
+     *
+     * @param pokemon The Pokemon, in the party or the enemy.
+     * @return The index of the Pokemon in the party at the start of the battle, or {@link BattleLog#ENEMY}.
+     */
+    private int getSubject(Pokemon pokemon) {
+        if (pokemon == this.enemyPokemon) {
+            return BattleLog.ENEMY;
+        }
+        for (int i = 0; i < this.battleParty.length; i++) {
+            if (this.battleParty[i] == pokemon) {
+                return i;
+            }
+        }
+        return BattleLog.ENEMY;
+    }
+
+    private void record(BattleLog.EventType type, Pokemon subject, int a, int b, int c) {
+        this.battleLog.record(type, this.battleEngine.getTurnCount(), this.getSubject(subject), a, b, c);
     }
 
     /**
      * Processes the next turn of the battle, including the enemy's turn.
+     * The status effects of both Pokemon are resolved at the end of the turn.
      */
     public void nextTurn() {
         this.enemyTurn();
-        this.turnCounter++;
+        this.battleEngine.nextTurn(this.selectedPokemon.getCombatant(), this.enemyPokemon.getCombatant());
+        this.record(BattleLog.EventType.TICK, this.selectedPokemon, this.selectedPokemon.getHealth(), this.enemyPokemon.getHealth(), 0);
     }
 
     private void enemyTurn() {
-        int size = this.enemyPokemon.getNumOfAbilities();
-        Ability ability = this.enemyPokemon.getAbility(MathUtils.random(0, size - 1));
-        this.attack(ability, this.enemyPokemon, this.selectedPokemon);
+        Ability ability = this.enemyAI.chooseAbility(this.enemyPokemon.getCombatant(), this.selectedPokemon.getCombatant());
+        if (ability != null) {
+            this.attack(ability, this.enemyPokemon, this.selectedPokemon);
+        }
     }
 
     /**
@@ -62,37 +156,15 @@ public class BattleController {
      * @param target  The Pokemon that is being attacked.
      */
     public void attack(Ability ability, Pokemon source, Pokemon target) {
-        if (!ability.isUnlocked()) {
-            System.out.println("Ability is not unlocked!");
+        if (!this.battleEngine.attack(ability, source.getCombatant(), target.getCombatant())) {
+            System.out.println("Ability is not available!");
             return;
         }
-        switch (ability.getEffect()) {
-            case NONE: {
-                double effectiveness = source.getEffectiveness(target);
-                target.decreaseHP((int) (ability.getAmount() * effectiveness));
-                break;
-            }
-            case HEAL: {
-                source.increaseHP(ability.getAmount());
-                break;
-            }
-            case BUFF_ATTACK: {
-                source.increaseATT(ability.getAmount());
-                break;
-            }
-            case BUFF_DEFENSE: {
-                source.increaseDEF(ability.getAmount());
-                break;
-            }
-            case BUFF_SPEED: {
-                source.increaseSPD(ability.getAmount());
-                break;
-            }
-            default: {
-                this.enemyPokemon.addStatusEffect(ability.getEffect());
-                break;
-            }
+        int abilityIndex = 0;
+        while (source.getAbility(abilityIndex) != ability) {
+            abilityIndex++;
         }
+        this.record(BattleLog.EventType.ATTACK, source, abilityIndex, target.getHealth(), source.getHealth());
     }
 
     /**
@@ -102,10 +174,121 @@ public class BattleController {
      */
     public void switchPokemon(Pokemon newPokemon) {
         this.selectedPokemon = newPokemon;
+        this.record(BattleLog.EventType.SWITCH, newPokemon, 0, 0, 0);
+    }
+
+    /**
+     * Uses an item of the player on the selected Pokemon. The change of its stats is logged.
+     *
+     * @param item The item to use.
+     */
+    public void useItem(UsableItem item) {
+        Pokemon pokemon = this.selectedPokemon;
+        int health = pokemon.getHealth();
+        int attack = pokemon.getAttack();
+        int defense = pokemon.getDefense();
+        this.player.useItem(item, pokemon);
+        this.record(BattleLog.EventType.ITEM, pokemon, pokemon.getHealth() - health, pokemon.getAttack() - attack, pokemon.getDefense() - defense);
+    }
+
+    /**
+     * Sets the strategy choosing the abilities of the enemy Pokemon. By default the enemy searches
+     * with an {@link ExpectimaxBattleAI} within {@link ExpectimaxBattleAI#DEFAULT_BUDGET_NANOS}.
+     *
+     * A strategy drawing random numbers must use a generator of its own, such as a {@link RandomBattleAI} does,
+     * because the battle log is replayed with the numbers drawn by the engine only.
+     *
+     * @param enemyAI The strategy.
+     */
+    public void setEnemyAI(BattleAI enemyAI) {
+        this.enemyAI = enemyAI;
+    }
+
+    public BattleAI getEnemyAI() {
+        return this.enemyAI;
+    }
+
+    /**
+     * Sets the directory the log of every battle is written to when the battle ends.
+     *
+     * @param logDirectory The directory, or null to keep the logs in memory only.
+     */
+    public void setLogDirectory(@Null File logDirectory) {
+        this.logDirectory = logDirectory;
+    }
+
+    public BattleLog getBattleLog() {
+        return this.battleLog;
+    }
+
+    /**
+     * Sets the listener notified once the battle has ended.
+     *
+     * @param battleEndListener The listener, or null to remove it.
+     */
+    public void setBattleEndListener(@Null BattleEndListener battleEndListener) {
+        this.battleEndListener = battleEndListener;
+    }
+
+    /**
+     * The player runs from the battle. The status effects wear off, but no rewards are given.
+     */
+    public void run() {
+        this.record(BattleLog.EventType.END, this.selectedPokemon, BattleLog.Outcome.RAN.ordinal(), 0, 0);
+        this.writeLog();
+        this.clearStatusEffects();
+    }
+
+    /**
+     * Copies the log of the battle and hands it to the writer thread, so the render thread never waits for the disk.
+     * The copy is needed because the next battle reuses the log.
+     */
+    private void writeLog() {
+        if (this.logDirectory == null) {
+            return;
+        }
+        File directory = this.logDirectory;
+        File file = new File(directory, "battle-" + Long.toHexString(this.battleLog.getSeed()) + ".bin");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            this.battleLog.write(bytes);
+        } catch (IOException e) {
+            // Writing into a ByteArrayOutputStream does not fail
+            throw new IllegalStateException(e);
+        }
+        this.logWriter.execute(() -> {
+            directory.mkdirs();
+            try (OutputStream out = new FileOutputStream(file)) {
+                bytes.writeTo(out);
+            } catch (IOException e) {
+                System.out.println("Could not write the battle log " + file + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Clears the status effects of the Pokemon in the battle. The Pokemon of the party are taken from the order
+     * at the start of the battle, because giving back the speed taken by FREEZE or ENTANGLE reorders the party.
+     */
+    private void clearStatusEffects() {
+        this.enemyPokemon.getCombatant().clearStatusEffects();
+        for (Pokemon pokemon : this.battleParty) {
+            pokemon.getCombatant().clearStatusEffects();
+        }
+    }
+
+    private void endBattle(BattleLog.Outcome outcome) {
+        this.record(BattleLog.EventType.END, this.selectedPokemon, outcome.ordinal(), 0, 0);
+        this.writeLog();
+        this.clearStatusEffects();
+        if (this.battleEndListener != null) {
+            this.battleEndListener.battleEnded(this);
+        }
     }
 
     /**
      * Checks if the battle has ended. A battle ends if either the enemy Pokemon has fainted, or all the player's Pokemon have fainted.
+     * The battle end listener is notified when the battle has ended, after the rewards have been given.
      *
      * @return True if the battle has ended, false otherwise.
      */
@@ -117,21 +300,25 @@ public class BattleController {
             Item item = this.player.getItemFromInventory("Pokeball");
             if (item instanceof Pokeball && !this.enemyPokemon.isCollected()) {
                 Pokeball pokeball = (Pokeball) item;
-                if (pokeball.attemptToCatch(this.enemyPokemon)) {
+                boolean caught = pokeball.attemptToCatch(this.enemyPokemon, this.catchRandom);
+                this.record(BattleLog.EventType.CATCH, this.enemyPokemon, caught ? 1 : 0, 0, 0);
+                if (caught) {
                     this.player.collectPokemon(this.enemyPokemon);
                 }
             }
 
+            this.endBattle(BattleLog.Outcome.WON);
             return true;
         }
 
         if (this.selectedPokemon.hasFainted()) {
             this.currentPlayerPartySize--;
             if (this.currentPlayerPartySize > 0) {
-                this.selectedPokemon = this.player.getFirstPokemon();
+                this.switchPokemon(this.player.getFirstPokemon());
             } else {
                 this.selectedPokemon.setFainted(false);
                 this.selectedPokemon.heal();
+                this.endBattle(BattleLog.Outcome.LOST);
                 return true;
             }
         }
@@ -149,4 +336,30 @@ public class BattleController {
     public Pokemon getSelectedPokemon() {
         return this.selectedPokemon;
     }
+
+    public int getTurnCount() {
+        return this.battleEngine.getTurnCount();
+    }
+
+    /**
+     * Waits for the pending battle logs to be written and stops the writer thread.
+     */
+    @Override
+    public void dispose() {
+        this.logWriter.shutdown();
+        try {
+            if (!this.logWriter.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.out.println("Timed out waiting for the battle logs to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Listener notified when a battle ends.
+     */
+    public interface BattleEndListener {
+        void battleEnded(BattleController battleController);
+    }
 }
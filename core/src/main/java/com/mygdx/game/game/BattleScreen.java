@@ -2,12 +2,14 @@ package com.mygdx.game.game;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.StringBuilder;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.mygdx.game.ability.Ability;
 import com.mygdx.game.character.Player;
@@ -15,6 +17,7 @@ import com.mygdx.game.item.Item;
 import com.mygdx.game.item.Pokeball;
 import com.mygdx.game.item.UsableItem;
 import com.mygdx.game.pokemon.Pokemon;
+import com.mygdx.game.profiler.Profiler;
 
 /**
  * Screen class handling the rendering of the battle.
@@ -22,12 +25,31 @@ import com.mygdx.game.pokemon.Pokemon;
 public class BattleScreen implements Screen {
     private final GameScreen gameScreen;
     private final GameClass game;
+    private final Profiler profiler;
     private final Skin skin;
     private final Stage pokemonStage;
     private final Player player;
     private final ButtonGroup<TextButton> buttonGroup;
     private final Stage uiStage;
     private final BattleController battleController;
+    private final Pokemon.ChangeListener infoUpdater;
+    private final StringBuilder text;
+    private final Table buttonsTable;
+    private final TextButton backButton;
+    private final Array<TextButton> abilityButtons;
+    private final Array<TextButton> itemButtons;
+    private final Array<TextButton> pokemonButtons;
+    private final ClickListener abilityClicked;
+    private final ClickListener itemClicked;
+    private final ClickListener pokemonClicked;
+    private Label enemyNameLabel;
+    private Label enemyLevelLabel;
+    private Label enemyHealthLabel;
+    private Label playerNameLabel;
+    private Label playerLevelLabel;
+    private Label playerHealthLabel;
+    private Pokemon shownPokemon;
+    private boolean infoChanged;
 
     private static final float PLAYER_POKEMON_X_POSITION = 0.2f; // 20% from left
     private static final float PLAYER_POKEMON_Y_POSITION = 0.3f; // 30% from bottom
@@ -38,7 +60,7 @@ public class BattleScreen implements Screen {
     //TODO redesign battle screen
 
     /**
-     * Constructs a new BattleScreen.
+     * Constructs a new BattleScreen. The screen is built once and reused for later battles through {@link #start(Pokemon)}.
      *
      * @param game         the main game instance.
      * @param gameScreen   the screen of the game.
@@ -49,33 +71,83 @@ public class BattleScreen implements Screen {
     public BattleScreen(GameClass game, GameScreen gameScreen, Skin skin, Player player, Pokemon enemyPokemon) {
         this.gameScreen = gameScreen;
         this.game = game;
+        this.profiler = game.getProfiler();
         this.skin = skin;
         this.player = player;
 
         this.buttonGroup = new ButtonGroup<>();
 
-        this.battleController = new BattleController(this.player, enemyPokemon);
+        this.battleController = new BattleController(this.player, enemyPokemon, this.game.getRandomService());
+        this.battleController.setBattleEndListener(battleController -> this.gameScreen.save());
+        this.battleController.setLogDirectory(Gdx.files.local("battles").file());
+        this.infoUpdater = pokemon -> this.infoChanged = true;
+        this.text = new StringBuilder();
 
         this.pokemonStage = new Stage(new ScreenViewport());
         this.uiStage = new Stage(new ScreenViewport());
-        Gdx.input.setInputProcessor(this.uiStage);
+        this.buttonsTable = new Table();
+        this.backButton = new TextButton("Back", this.skin);
+        this.abilityButtons = new Array<>();
+        this.itemButtons = new Array<>();
+        this.pokemonButtons = new Array<>();
+
+        this.abilityClicked = new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                Ability ability = (Ability) event.getListenerActor().getUserObject();
+                if (!ability.isAvailable()) {
+                    return;
+                }
+                BattleScreen.this.battleController.attack(ability);
+                BattleScreen.this.battleController.nextTurn();
+                BattleScreen.this.switchMainUI();
+            }
+        };
+        this.itemClicked = new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                Item item = (Item) event.getListenerActor().getUserObject();
+                if (item instanceof UsableItem) {
+                    System.out.println("Using item " + item.getName());
+                    BattleScreen.this.battleController.useItem((UsableItem) item);
+                    BattleScreen.this.switchMainUI();
+                }
+            }
+        };
+        this.pokemonClicked = new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                Pokemon pokemon = (Pokemon) event.getListenerActor().getUserObject();
+                System.out.println("Switching to " + pokemon.getName());
+                BattleScreen.this.battleController.switchPokemon(pokemon);
+                BattleScreen.this.switchMainUI();
+            }
+        };
 
         this.init();
     }
 
+    /**
+     * Refreshes the labels of both Pokemon when one of them changed or the player switched Pokemon.
+     * The labels keep their text, and nothing is allocated, on frames where nothing changed.
+     */
     private void updateUI() {
         Pokemon enemyPokemon = this.battleController.getEnemyPokemon();
         Pokemon selectedPokemon = this.battleController.getSelectedPokemon();
 
-        Table enemyInfo = this.uiStage.getRoot().findActor("enemyInfo");
-        Table playerInfo = this.uiStage.getRoot().findActor("playerInfo");
-        ((Label) enemyInfo.findActor("enemyName")).setText(enemyPokemon.getName());
-        ((Label) enemyInfo.findActor("enemyLevel")).setText("Lvl: " + enemyPokemon.getLevel());
-        ((Label) enemyInfo.findActor("enemyHp")).setText("HP: " + enemyPokemon.getHealth() + "/" + enemyPokemon.getMaxHealth());
-
-        ((Label) playerInfo.findActor("playerName")).setText(selectedPokemon.getName());
-        ((Label) playerInfo.findActor("playerLevel")).setText("Lvl: " + selectedPokemon.getLevel());
-        ((Label) playerInfo.findActor("playerHp")).setText("HP: " + selectedPokemon.getHealth() + "/" + selectedPokemon.getMaxHealth());
+        if (selectedPokemon != this.shownPokemon) {
+            if (this.shownPokemon != null) {
+                this.shownPokemon.removeChangeListener(this.infoUpdater);
+            }
+            this.shownPokemon = selectedPokemon;
+            selectedPokemon.addChangeListener(this.infoUpdater);
+            this.infoChanged = true;
+        }
+        if (this.infoChanged) {
+            this.infoChanged = false;
+            this.showInfo(enemyPokemon, this.enemyNameLabel, this.enemyLevelLabel, this.enemyHealthLabel);
+            this.showInfo(selectedPokemon, this.playerNameLabel, this.playerLevelLabel, this.playerHealthLabel);
+        }
 
         if (enemyPokemon.hasFainted()) {
             selectedPokemon.gainExp(enemyPokemon.getLevel() * 5);
@@ -84,75 +156,68 @@ public class BattleScreen implements Screen {
         }
     }
 
-    private void attackUI(Table buttonsTable) {
-        buttonsTable.clearChildren();
-        Pokemon selectedPokemon = this.battleController.getSelectedPokemon();
+    private void showInfo(Pokemon pokemon, Label name, Label level, Label health) {
+        name.setText(pokemon.getName());
+        this.text.setLength(0);
+        this.text.append("Lvl: ").append(pokemon.getLevel());
+        level.setText(this.text);
+        this.text.setLength(0);
+        this.text.append("HP: ").append(pokemon.getHealth()).append('/').append(pokemon.getMaxHealth());
+        health.setText(this.text);
+    }
 
-        for (Ability ability : selectedPokemon.getAbilities()) {
-            TextButton abilityButton = new TextButton(ability.getName(), this.skin);
-            abilityButton.addListener(new ClickListener() {
-                @Override
-                public void clicked(InputEvent event, float x, float y) {
-                    BattleScreen.this.battleController.attack(ability);
-                    BattleScreen.this.battleController.nextTurn();
-                    BattleScreen.this.switchMainUI(buttonsTable);
-                }
-            });
-            buttonsTable.add(abilityButton).row();
+    /**
+     * Returns the button at the given index of a pool, creating it with the listener when the pool is too small.
+     * The buttons are rebound to new data with {@link TextButton#setText(String)} and {@link TextButton#setUserObject(Object)}.
+     */
+    private TextButton obtainButton(Array<TextButton> buttons, int index, ClickListener listener) {
+        if (index == buttons.size) {
+            TextButton button = new TextButton("", this.skin);
+            button.addListener(listener);
+            buttons.add(button);
         }
-
-
-        TextButton backButton = new TextButton("Back", this.skin);
-        backButton.addListener(new ClickListener() {
-            @Override
-            public void clicked(InputEvent event, float x, float y) {
-                BattleScreen.this.switchMainUI(buttonsTable);
-            }
-        });
-        buttonsTable.add(backButton).row();
+        return buttons.get(index);
     }
 
-    private void bagUI(Table buttonsTable) {
-        buttonsTable.clearChildren();
-        TextButton backButton = new TextButton("Back", this.skin);
+    private void attackUI() {
+        this.buttonsTable.clearChildren();
+        int index = 0;
+        for (Ability ability : this.battleController.getSelectedPokemon().getAbilities()) {
+            TextButton abilityButton = this.obtainButton(this.abilityButtons, index++, this.abilityClicked);
+            abilityButton.setText(ability.getName());
+            abilityButton.setUserObject(ability);
+            abilityButton.setDisabled(!ability.isAvailable());
+            abilityButton.getLabel().setColor(ability.isAvailable() ? Color.WHITE : Color.GRAY);
+            this.buttonsTable.add(abilityButton).row();
+        }
+        this.buttonsTable.add(this.backButton).row();
+    }
 
+    private void bagUI() {
+        this.buttonsTable.clearChildren();
+        int index = 0;
         for (Item item : this.player.getInvetory()) {
             if (item instanceof Pokeball) {
                 continue;
             }
-            TextButton itemButton = new TextButton(item.getName(), this.skin);
-            itemButton.addListener(new ClickListener() {
-                @Override
-                public void clicked(InputEvent event, float x, float y) {
-                    if (item instanceof UsableItem) {
-                        System.out.println("Using item " + item.getName());
-                        BattleScreen.this.player.useItem((UsableItem) item, BattleScreen.this.battleController.getSelectedPokemon());
-                        BattleScreen.this.switchMainUI(buttonsTable);
-                    }
-                }
-            });
-            buttonsTable.add(itemButton).row();
+            TextButton itemButton = this.obtainButton(this.itemButtons, index++, this.itemClicked);
+            itemButton.setText(item.getName());
+            itemButton.setUserObject(item);
+            this.buttonsTable.add(itemButton).row();
         }
-
-        backButton.addListener(new ClickListener() {
-            @Override
-            public void clicked(InputEvent event, float x, float y) {
-                BattleScreen.this.switchMainUI(buttonsTable);
-            }
-        });
-        buttonsTable.add(backButton).row();
+        this.buttonsTable.add(this.backButton).row();
     }
 
-    private void switchMainUI(Table buttonsTable) {
+    private void switchMainUI() {
         this.pokemonStage.clear();
-        buttonsTable.clearChildren();
-        buttonsTable.defaults().size(300, 100).pad(2);
-        buttonsTable.bottom().right();
+        this.buttonsTable.clearChildren();
+        this.buttonsTable.defaults().size(300, 100).pad(2);
+        this.buttonsTable.bottom().right();
         Array<TextButton> buttons = this.buttonGroup.getButtons();
         for (int i = 0; i < buttons.size; i++) {
-            buttonsTable.add(buttons.get(i));
+            this.buttonsTable.add(buttons.get(i));
             if (i % 2 == 1) {
-                buttonsTable.row();
+                this.buttonsTable.row();
             }
         }
 
@@ -162,28 +227,16 @@ public class BattleScreen implements Screen {
         this.pokemonStage.addActor(this.battleController.getEnemyPokemon());
     }
 
-    private void switchPokemonUI(Table buttonsTable) {
-        buttonsTable.clearChildren();
+    private void switchPokemonUI() {
+        this.buttonsTable.clearChildren();
+        int index = 0;
         for (Pokemon pokemon : this.player.getParty()) {
-            TextButton button = new TextButton(pokemon.getName(), this.skin);
-            button.addListener(new ClickListener() {
-                @Override
-                public void clicked(InputEvent event, float x, float y) {
-                    System.out.println("Switching to " + pokemon.getName());
-                    BattleScreen.this.battleController.switchPokemon(pokemon);
-                    BattleScreen.this.switchMainUI(buttonsTable);
-                }
-            });
-            buttonsTable.add(button).row();
+            TextButton pokemonButton = this.obtainButton(this.pokemonButtons, index++, this.pokemonClicked);
+            pokemonButton.setText(pokemon.getName());
+            pokemonButton.setUserObject(pokemon);
+            this.buttonsTable.add(pokemonButton).row();
         }
-        TextButton backButton = new TextButton("Back", this.skin);
-        backButton.addListener(new ClickListener() {
-            @Override
-            public void clicked(InputEvent event, float x, float y) {
-                BattleScreen.this.switchMainUI(buttonsTable);
-            }
-        });
-        buttonsTable.add(backButton).row();
+        this.buttonsTable.add(this.backButton).row();
     }
 
     private void setPositions() {
@@ -209,9 +262,8 @@ public class BattleScreen implements Screen {
         Pokemon selectedPokemon = this.battleController.getSelectedPokemon();
         Pokemon enemyPokemon = this.battleController.getEnemyPokemon();
 
-        Table buttonsTable = new Table();
-        buttonsTable.setName("buttons");
-        buttonsTable.setFillParent(true);
+        this.buttonsTable.setName("buttons");
+        this.buttonsTable.setFillParent(true);
 
         Table enemyInfoTable = new Table();
         enemyInfoTable.setName("enemyInfo");
@@ -221,7 +273,7 @@ public class BattleScreen implements Screen {
         enemyInfoTable.setFillParent(true);
         playerInfoTable.setFillParent(true);
 
-        this.uiStage.addActor(buttonsTable);
+        this.uiStage.addActor(this.buttonsTable);
         this.uiStage.addActor(enemyInfoTable);
         this.uiStage.addActor(playerInfoTable);
 
@@ -230,69 +282,79 @@ public class BattleScreen implements Screen {
         TextButton switchPokemon = new TextButton("Pokemon", this.skin);
         TextButton run = new TextButton("Run", this.skin);
 
-        Label enemyPokemonName = new Label(enemyPokemon.getName(), this.skin);
-        enemyPokemonName.setName("enemyName");
-
-        Label enemyPokemonLevel = new Label("Lvl: " + enemyPokemon.getLevel(), this.skin);
-        enemyPokemonLevel.setName("enemyLevel");
-
-        Label enemyPokemonHP = new Label("HP: " + enemyPokemon.getHealth() + "/" + enemyPokemon.getMaxHealth(), this.skin);
-        enemyPokemonHP.setName("enemyHp");
-
-        Label playerPokemonName = new Label(selectedPokemon.getName(), this.skin);
-        playerPokemonName.setName("playerName");
-
-        Label playerPokemonLevel = new Label("Lvl: " + selectedPokemon.getLevel(), this.skin);
-        playerPokemonLevel.setName("playerLevel");
-
-        Label playerPokemonHP = new Label("HP: " + selectedPokemon.getHealth() + "/" + selectedPokemon.getMaxHealth(), this.skin);
-        playerPokemonHP.setName("playerHp");
+        this.enemyNameLabel = new Label("", this.skin);
+        this.enemyLevelLabel = new Label("", this.skin);
+        this.enemyHealthLabel = new Label("", this.skin);
+        this.playerNameLabel = new Label("", this.skin);
+        this.playerLevelLabel = new Label("", this.skin);
+        this.playerHealthLabel = new Label("", this.skin);
+        this.showInfo(enemyPokemon, this.enemyNameLabel, this.enemyLevelLabel, this.enemyHealthLabel);
+        this.showInfo(selectedPokemon, this.playerNameLabel, this.playerLevelLabel, this.playerHealthLabel);
 
         enemyInfoTable.defaults().uniform().fill().pad(5);
         enemyInfoTable.top();
-        enemyInfoTable.add(enemyPokemonName);
+        enemyInfoTable.add(this.enemyNameLabel);
         enemyInfoTable.row();
-        enemyInfoTable.add(enemyPokemonLevel);
-        enemyInfoTable.add(enemyPokemonHP);
+        enemyInfoTable.add(this.enemyLevelLabel);
+        enemyInfoTable.add(this.enemyHealthLabel);
 
         playerInfoTable.defaults().uniform().fill().pad(5);
         playerInfoTable.bottom();
-        playerInfoTable.add(playerPokemonName);
+        playerInfoTable.add(this.playerNameLabel);
         playerInfoTable.row();
-        playerInfoTable.add(playerPokemonLevel);
-        playerInfoTable.add(playerPokemonHP);
+        playerInfoTable.add(this.playerLevelLabel);
+        playerInfoTable.add(this.playerHealthLabel);
 
         attack.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                BattleScreen.this.attackUI(buttonsTable);
+                BattleScreen.this.attackUI();
             }
         });
 
         bag.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                BattleScreen.this.bagUI(buttonsTable);
+                BattleScreen.this.bagUI();
             }
         });
 
         switchPokemon.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                BattleScreen.this.switchPokemonUI(buttonsTable);
+                BattleScreen.this.switchPokemonUI();
             }
         });
 
         run.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
+                BattleScreen.this.battleController.run();
                 BattleScreen.this.game.setScreen(BattleScreen.this.gameScreen);
             }
         });
 
+        this.backButton.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                BattleScreen.this.switchMainUI();
+            }
+        });
+
         this.buttonGroup.add(attack, bag, switchPokemon, run);
 
-        this.switchMainUI(buttonsTable);
+        this.switchMainUI();
+    }
+
+    /**
+     * Starts a new battle on this screen against another enemy Pokemon. The stages, tables and buttons
+     * of the previous battle are kept and rebound to the new Pokemon, so starting a battle builds no UI.
+     *
+     * @param enemyPokemon the enemy Pokemon involved in the battle.
+     */
+    public void start(Pokemon enemyPokemon) {
+        this.battleController.start(enemyPokemon);
+        this.switchMainUI();
     }
 
     /**
@@ -304,17 +366,26 @@ public class BattleScreen implements Screen {
     public void render(float delta) {
         ScreenUtils.clear(0.8f, 0.8f, 0.8f, 1);
 
+        this.profiler.begin(Profiler.Section.BATTLE_UPDATE);
         this.updateUI();
+        this.profiler.end(Profiler.Section.BATTLE_UPDATE);
 
+        this.profiler.begin(Profiler.Section.BATTLE_POKEMON);
         this.pokemonStage.getViewport().apply();
         this.pokemonStage.act(delta);
         this.pokemonStage.draw();
+        this.profiler.end(Profiler.Section.BATTLE_POKEMON);
 
+        this.profiler.begin(Profiler.Section.BATTLE_UI);
         this.uiStage.getViewport().apply();
         this.uiStage.act(delta);
         this.uiStage.draw();
+        this.profiler.end(Profiler.Section.BATTLE_UI);
 
-        if (this.battleController.checkBattleEnd()) {
+        this.profiler.begin(Profiler.Section.BATTLE_END);
+        boolean battleEnded = this.battleController.checkBattleEnd();
+        this.profiler.end(Profiler.Section.BATTLE_END);
+        if (battleEnded) {
             this.game.setScreen(this.gameScreen);
         }
     }
@@ -339,6 +410,8 @@ public class BattleScreen implements Screen {
     @Override
     public void show() {
         Gdx.input.setInputProcessor(this.uiStage);
+        this.battleController.getEnemyPokemon().addChangeListener(this.infoUpdater);
+        this.infoChanged = true;
     }
 
     /**
@@ -348,6 +421,7 @@ public class BattleScreen implements Screen {
     public void dispose() {
         this.uiStage.dispose();
         this.pokemonStage.dispose();
+        this.battleController.dispose();
     }
 
     @Override
@@ -362,6 +436,11 @@ public class BattleScreen implements Screen {
 
     @Override
     public void hide() {
-        //unused
+        this.pokemonStage.clear();
+        this.battleController.getEnemyPokemon().removeChangeListener(this.infoUpdater);
+        if (this.shownPokemon != null) {
+            this.shownPokemon.removeChangeListener(this.infoUpdater);
+            this.shownPokemon = null;
+        }
     }
 }
@@ -0,0 +1,384 @@
+package com.mygdx.game.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapGroupLayer;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Renders the tile layers of a TiledMap from geometry that is built once per map instead of every frame.
+ * <p>
+ * When a map is set, every tile layer is cut into square chunks of {@value #CHUNK_TILES} by {@value #CHUNK_TILES} tiles
+ * and the static tiles of every chunk are baked into a cache of a {@link SpriteCache}. Drawing a frame only works out
+ * which chunks overlap the view of the camera and draws their caches, so the cost of a frame depends on the size
+ * of the screen and not on the size of the map. Animated tiles cannot be baked; they are kept in a list per layer
+ * and drawn through the batch every frame.
+ * <p>
+ * A SpriteCache holds at most {@value #PAGE_SIZE} tiles, so large maps are spread over several of them.
+ * The caches are kept between maps and cleared when the next map is set.
+ */
+public class ChunkedMapRenderer implements Disposable {
+    private static final int CHUNK_TILES = 16;
+    private static final int PAGE_SIZE = 8191;
+    private static final int VERTEX_SIZE = 5;
+    private static final int SPRITE_SIZE = 4 * VERTEX_SIZE;
+    private final Array<SpriteCache> pages;
+    private final Array<LayerChunks> layers;
+    private final Batch batch;
+    private final float[] vertices;
+    private final float[] corners;
+    private final float[] us;
+    private final float[] vs;
+    private TiledMap map;
+    private int usedPages;
+    private int pageSprites;
+    private float mapWidth;
+    private float mapHeight;
+    private int visibleChunks;
+    private float bakeMillis;
+
+    /**
+     * Constructs a new ChunkedMapRenderer and bakes the given map.
+     *
+     * @param map   The map to render
+     * @param batch The batch used to draw the animated tiles
+     */
+    public ChunkedMapRenderer(TiledMap map, Batch batch) {
+        this.pages = new Array<>();
+        this.layers = new Array<>();
+        this.batch = batch;
+        this.vertices = new float[SPRITE_SIZE];
+        this.corners = new float[8];
+        this.us = new float[4];
+        this.vs = new float[4];
+        this.setMap(map);
+    }
+
+    /**
+     * Replaces the rendered map, baking all of its tile layers.
+     *
+     * @param map The map to render
+     */
+    public void setMap(TiledMap map) {
+        long startTime = System.nanoTime();
+        this.map = map;
+        this.layers.clear();
+        for (int i = 0; i < this.usedPages; i++) {
+            this.pages.get(i).clear();
+        }
+        this.usedPages = 0;
+        this.pageSprites = PAGE_SIZE;
+        this.mapWidth = 0;
+        this.mapHeight = 0;
+
+        int chunks = this.bakeLayers(map.getLayers());
+        this.bakeMillis = (System.nanoTime() - startTime) / 1_000_000f;
+        if (Constants.DEBUG) {
+            System.out.println("Baked " + chunks + " map chunks into " + this.usedPages + " caches in " + this.bakeMillis + " ms");
+        }
+    }
+
+    private int bakeLayers(MapLayers mapLayers) {
+        int chunks = 0;
+        for (MapLayer layer : mapLayers) {
+            if (layer instanceof MapGroupLayer) {
+                chunks += this.bakeLayers(((MapGroupLayer) layer).getLayers());
+            } else if (layer instanceof TiledMapTileLayer) {
+                chunks += this.bakeLayer((TiledMapTileLayer) layer);
+            }
+        }
+        return chunks;
+    }
+
+    private int bakeLayer(TiledMapTileLayer layer) {
+        LayerChunks chunks = new LayerChunks(layer);
+        this.layers.add(chunks);
+        this.mapWidth = Math.max(this.mapWidth, layer.getWidth() * layer.getTileWidth());
+        this.mapHeight = Math.max(this.mapHeight, layer.getHeight() * layer.getTileHeight());
+
+        int baked = 0;
+        for (int chunkY = 0; chunkY < chunks.rows; chunkY++) {
+            for (int chunkX = 0; chunkX < chunks.columns; chunkX++) {
+                int startX = chunkX * CHUNK_TILES;
+                int startY = chunkY * CHUNK_TILES;
+                int endX = Math.min(startX + CHUNK_TILES, layer.getWidth());
+                int endY = Math.min(startY + CHUNK_TILES, layer.getHeight());
+                int chunk = chunkY * chunks.columns + chunkX;
+
+                SpriteCache page = this.reservePage((endX - startX) * (endY - startY));
+                int tiles = 0;
+                for (int y = startY; y < endY; y++) {
+                    for (int x = startX; x < endX; x++) {
+                        TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                        if (cell == null || cell.getTile() == null) {
+                            continue;
+                        }
+                        if (cell.getTile() instanceof AnimatedTiledMapTile) {
+                            chunks.animatedCells.add(x, y);
+                            continue;
+                        }
+                        if (tiles == 0) {
+                            page.beginCache();
+                        }
+                        this.buildVertices(chunks, cell, x, y);
+                        page.add(cell.getTile().getTextureRegion().getTexture(), this.vertices, 0, SPRITE_SIZE);
+                        tiles++;
+                    }
+                }
+                if (tiles > 0) {
+                    chunks.pages[chunk] = this.usedPages - 1;
+                    chunks.caches[chunk] = page.endCache();
+                    this.pageSprites += tiles;
+                    baked++;
+                }
+            }
+        }
+        return baked;
+    }
+
+    /**
+     * Returns the page the next chunk is baked into, moving to the next page if the current one cannot hold the given number of tiles.
+     */
+    private SpriteCache reservePage(int tiles) {
+        if (this.pageSprites + tiles > PAGE_SIZE) {
+            if (this.usedPages == this.pages.size) {
+                this.pages.add(new SpriteCache(PAGE_SIZE, true));
+            }
+            this.usedPages++;
+            this.pageSprites = 0;
+        }
+        return this.pages.get(this.usedPages - 1);
+    }
+
+    /**
+     * Fills the vertices of a tile, applying the flips and the rotation of the cell the same way libGDX's OrthogonalTiledMapRenderer does.
+     */
+    private void buildVertices(LayerChunks chunks, TiledMapTileLayer.Cell cell, int x, int y) {
+        TiledMapTile tile = cell.getTile();
+        TextureRegion region = tile.getTextureRegion();
+        float x1 = x * chunks.layer.getTileWidth() + chunks.layer.getRenderOffsetX() + tile.getOffsetX();
+        float y1 = y * chunks.layer.getTileHeight() - chunks.layer.getRenderOffsetY() + tile.getOffsetY();
+        float x2 = x1 + region.getRegionWidth();
+        float y2 = y1 + region.getRegionHeight();
+
+        float u1 = region.getU();
+        float v1 = region.getV2();
+        float u2 = region.getU2();
+        float v2 = region.getV();
+        if (cell.getFlipHorizontally()) {
+            float temp = u1;
+            u1 = u2;
+            u2 = temp;
+        }
+        if (cell.getFlipVertically()) {
+            float temp = v1;
+            v1 = v2;
+            v2 = temp;
+        }
+
+        // Corners in the order bottom left, top left, top right, bottom right; a rotation shifts the texture coordinates along them.
+        this.setCorner(0, x1, y1, u1, v1);
+        this.setCorner(1, x1, y2, u1, v2);
+        this.setCorner(2, x2, y2, u2, v2);
+        this.setCorner(3, x2, y1, u2, v1);
+        int rotation = cell.getRotation();
+        for (int corner = 0; corner < 4; corner++) {
+            int offset = corner * VERTEX_SIZE;
+            int source = (corner + rotation) % 4;
+            this.vertices[offset] = this.corners[corner * 2];
+            this.vertices[offset + 1] = this.corners[corner * 2 + 1];
+            this.vertices[offset + 2] = chunks.color;
+            this.vertices[offset + 3] = this.us[source];
+            this.vertices[offset + 4] = this.vs[source];
+        }
+    }
+
+    private void setCorner(int corner, float x, float y, float u, float v) {
+        this.corners[corner * 2] = x;
+        this.corners[corner * 2 + 1] = y;
+        this.us[corner] = u;
+        this.vs[corner] = v;
+    }
+
+    /**
+     * Draws the chunks of every visible layer that overlap the view of the camera.
+     * Must not be called while the batch is drawing.
+     *
+     * @param camera The camera of the world
+     */
+    public void render(OrthographicCamera camera) {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        float viewLeft = camera.position.x - halfWidth;
+        float viewBottom = camera.position.y - halfHeight;
+        float viewRight = camera.position.x + halfWidth;
+        float viewTop = camera.position.y + halfHeight;
+        AnimatedTiledMapTile.updateAnimationBaseTime();
+        this.visibleChunks = 0;
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        for (LayerChunks chunks : this.layers) {
+            if (!chunks.isVisible()) {
+                continue;
+            }
+            float chunkWidth = CHUNK_TILES * chunks.layer.getTileWidth();
+            float chunkHeight = CHUNK_TILES * chunks.layer.getTileHeight();
+            int firstX = Math.max(0, (int) Math.floor(viewLeft / chunkWidth));
+            int firstY = Math.max(0, (int) Math.floor(viewBottom / chunkHeight));
+            int lastX = Math.min(chunks.columns - 1, (int) Math.floor(viewRight / chunkWidth));
+            int lastY = Math.min(chunks.rows - 1, (int) Math.floor(viewTop / chunkHeight));
+
+            SpriteCache page = null;
+            for (int chunkY = firstY; chunkY <= lastY; chunkY++) {
+                for (int chunkX = firstX; chunkX <= lastX; chunkX++) {
+                    int chunk = chunkY * chunks.columns + chunkX;
+                    if (chunks.caches[chunk] < 0) {
+                        continue;
+                    }
+                    SpriteCache chunkPage = this.pages.get(chunks.pages[chunk]);
+                    if (chunkPage != page) {
+                        if (page != null) {
+                            page.end();
+                        }
+                        page = chunkPage;
+                        page.setProjectionMatrix(camera.combined);
+                        page.begin();
+                    }
+                    page.draw(chunks.caches[chunk]);
+                    this.visibleChunks++;
+                }
+            }
+            if (page != null) {
+                page.end();
+            }
+
+            if (chunks.animatedCells.size > 0) {
+                this.renderAnimatedCells(chunks, camera, viewLeft, viewBottom, viewRight, viewTop);
+            }
+        }
+    }
+
+    private void renderAnimatedCells(LayerChunks chunks, OrthographicCamera camera, float viewLeft, float viewBottom, float viewRight, float viewTop) {
+        float tileWidth = chunks.layer.getTileWidth();
+        float tileHeight = chunks.layer.getTileHeight();
+        this.batch.setProjectionMatrix(camera.combined);
+        this.batch.begin();
+        int[] cells = chunks.animatedCells.items;
+        for (int i = 0; i < chunks.animatedCells.size; i += 2) {
+            int x = cells[i];
+            int y = cells[i + 1];
+            if ((x + 1) * tileWidth < viewLeft || x * tileWidth > viewRight || (y + 1) * tileHeight < viewBottom || y * tileHeight > viewTop) {
+                continue;
+            }
+            TiledMapTileLayer.Cell cell = chunks.layer.getCell(x, y);
+            this.buildVertices(chunks, cell, x, y);
+            this.batch.draw(cell.getTile().getTextureRegion().getTexture(), this.vertices, 0, SPRITE_SIZE);
+        }
+        this.batch.end();
+    }
+
+    public TiledMap getMap() {
+        return this.map;
+    }
+
+    /**
+     * Returns the width of the map in world units.
+     *
+     * @return The width of the widest tile layer
+     */
+    public float getMapWidth() {
+        return this.mapWidth;
+    }
+
+    /**
+     * Returns the height of the map in world units.
+     *
+     * @return The height of the highest tile layer
+     */
+    public float getMapHeight() {
+        return this.mapHeight;
+    }
+
+    /**
+     * Returns the number of chunks drawn by the last {@link #render(OrthographicCamera)}.
+     *
+     * @return The number of drawn chunks
+     */
+    public int getVisibleChunks() {
+        return this.visibleChunks;
+    }
+
+    /**
+     * Returns how long the last {@link #setMap(TiledMap)} took to bake the map.
+     *
+     * @return The bake time in milliseconds
+     */
+    public float getBakeMillis() {
+        return this.bakeMillis;
+    }
+
+    /**
+     * Disposes of the caches. The map itself is owned by the ZoneStreamer.
+     */
+    @Override
+    public void dispose() {
+        for (SpriteCache page : this.pages) {
+            page.dispose();
+        }
+        this.pages.clear();
+        this.layers.clear();
+    }
+
+    /**
+     * The baked chunks of one tile layer. A chunk without any static tile has no cache.
+     */
+    private static final class LayerChunks {
+        private final TiledMapTileLayer layer;
+        private final int columns;
+        private final int rows;
+        private final int[] pages;
+        private final int[] caches;
+        private final IntArray animatedCells;
+        private final float color;
+
+        private LayerChunks(TiledMapTileLayer layer) {
+            this.layer = layer;
+            this.columns = (layer.getWidth() + CHUNK_TILES - 1) / CHUNK_TILES;
+            this.rows = (layer.getHeight() + CHUNK_TILES - 1) / CHUNK_TILES;
+            this.pages = new int[this.columns * this.rows];
+            this.caches = new int[this.columns * this.rows];
+            Arrays.fill(this.caches, -1);
+            this.animatedCells = new IntArray();
+            Color tint = layer.getCombinedTintColor();
+            this.color = Color.toFloatBits(tint.r, tint.g, tint.b, tint.a * layer.getOpacity());
+        }
+
+        /**
+         * Returns whether the layer and all the groups it is in are visible.
+         */
+        private boolean isVisible() {
+            for (MapLayer layer = this.layer; layer != null; layer = layer.getParent()) {
+                if (!layer.isVisible()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.mygdx.game.game;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Comparator;
+
+/**
+ * Draws the entities of the overworld, the player and the wild Pokemon, in one pass over a single batch.
+ * <p>
+ * Entities are sorted by their y coordinate every frame so that an entity lower on the screen is drawn over the ones behind it.
+ * The order barely changes between frames and the sort is stable, so sorting is close to linear and entities
+ * on the same row keep their order. Every entity draws a region that was resolved once from a shared atlas,
+ * so the batch only flushes when the texture changes between the Pokemon atlas and the trainer atlas.
+ * With a single player that is at most three draw calls, however many Pokemon are spawned.
+ */
+public class EntityRenderer {
+    private static final Comparator<Actor> DEPTH_ORDER = (first, second) -> Float.compare(second.getY(), first.getY());
+    private final Array<Actor> entities;
+    private int renderCalls;
+
+    /**
+     * Constructs a new EntityRenderer without any entities.
+     */
+    public EntityRenderer() {
+        this.entities = new Array<>(true, 32, Actor.class);
+    }
+
+    public void add(Actor entity) {
+        this.entities.add(entity);
+    }
+
+    public void remove(Actor entity) {
+        this.entities.removeValue(entity, true);
+    }
+
+    public void clear() {
+        this.entities.clear();
+    }
+
+    /**
+     * Draws every entity, back to front.
+     *
+     * @param batch  The batch to draw with, which must not be drawing yet
+     * @param camera The camera of the world
+     */
+    public void draw(Batch batch, Camera camera) {
+        this.entities.sort(DEPTH_ORDER);
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        Actor[] items = this.entities.items;
+        for (int i = 0, n = this.entities.size; i < n; i++) {
+            items[i].draw(batch, 1);
+        }
+        batch.end();
+        if (batch instanceof SpriteBatch) {
+            this.renderCalls = ((SpriteBatch) batch).renderCalls;
+        }
+    }
+
+    /**
+     * Returns the number of draw calls the last {@link #draw(Batch, Camera)} needed.
+     *
+     * @return The number of draw calls, 0 if the batch does not count them
+     */
+    public int getRenderCalls() {
+        return this.renderCalls;
+    }
+
+    public int getSize() {
+        return this.entities.size;
+    }
+}
@@ -2,30 +2,64 @@ package com.mygdx.game.game;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
-import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.asset.AtlasCache;
 import com.mygdx.game.character.Player;
 import com.mygdx.game.item.Effect;
 import com.mygdx.game.item.Pokeball;
 import com.mygdx.game.item.Potion;
-import com.mygdx.game.pokemon.FirePokemon;
 import com.mygdx.game.pokemon.Pokedex;
 import com.mygdx.game.pokemon.Pokemon;
+import com.mygdx.game.profiler.Profiler;
+import com.mygdx.game.profiler.ProfilerOverlay;
+import com.mygdx.game.random.RandomService;
+import com.mygdx.game.save.SaveGame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 
 /**
  * Entry point of the game. This class is responsible for creating the game
  */
 public class GameClass extends Game {
+    private final RandomService randomService;
+    private final Profiler profiler;
+    private ProfilerOverlay profilerOverlay;
     private Skin skin;
     private Pokedex pokedex;
     private MainMenuScreen mainMenuScreen;
     private SettingsScreen settingsScreen;
     private Player player;
+    private SaveGame saveGame;
+    private StartupLoader startupLoader;
+
+    /**
+     * Constructs the game with a random seed.
+     */
+    public GameClass() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Constructs the game with the given seed. Two games with the same seed spawn the same Pokemon
+     * and roll the same battles as long as the player makes the same moves.
+     *
+     * @param seed The master seed of the random service
+     */
+    public GameClass(long seed) {
+        this.randomService = new RandomService(seed);
+        this.profiler = new Profiler();
+    }
 
     private void testGame() {
         this.player = new Player("Player", this.pokedex);
-        Pokemon debugFirePokemon = new FirePokemon("charizard", 3, 300, 10, 10, 10, null);
+        Pokemon debugFirePokemon = this.pokedex.getPokemon("charizard");
+        debugFirePokemon.setMaxHealth(300);
+        debugFirePokemon.setAttack(10);
+        debugFirePokemon.setDefense(10);
+        debugFirePokemon.setSpeed(10);
         Pokemon debugWaterPokemon = this.pokedex.getPokemon("squirtle");
         this.player.collectPokemon(debugFirePokemon);
         this.player.collectPokemon(debugWaterPokemon);
@@ -41,14 +75,33 @@ public class GameClass extends Game {
     }
 
     /**
-     * Creates a new game session. This method initializes the skin, Pokedex,
-     * the main menu screen, and settings screen. It also sets the current screen.
+     * Starts the game. Shows the loading screen while the {@link StartupLoader} loads the game data,
+     * the save files and the assets in the background; the rest of the game is created in {@link #finishStartup(StartupLoader)}.
      */
     @Override
     public void create() {
-        AbilityLoader abilityLoader = new AbilityLoader();
-        this.pokedex = new Pokedex(abilityLoader);
-        this.skin = new Skin(Gdx.files.internal("skin/skin.json"), new TextureAtlas("skin/skin.atlas"));
+        System.out.println("Random seed: " + this.randomService.getSeed());
+        this.profilerOverlay = new ProfilerOverlay(this.profiler);
+        this.startupLoader = new StartupLoader();
+        this.startupLoader.start();
+        this.setScreen(new LoadingScreen(this, this.startupLoader));
+    }
+
+    /**
+     * Creates the game session from everything the loader has loaded. This method creates the Pokedex,
+     * the main menu screen, and settings screen. It also sets the current screen.
+     *
+     * @param loader The loader, which has finished loading
+     */
+    void finishStartup(StartupLoader loader) {
+        long phaseStart = System.nanoTime();
+        loader.awaitTypeChart();
+        this.saveGame = loader.getSaveGame();
+        this.skin = loader.getSkin();
+        this.pokedex = new Pokedex(loader.getSpeciesLoader(), this.randomService);
+        loader.record("pokedex", phaseStart);
+
+        phaseStart = System.nanoTime();
         this.mainMenuScreen = new MainMenuScreen(this, this.skin, this.pokedex);
         this.settingsScreen = new SettingsScreen(this, this.skin, this.mainMenuScreen);
         if (Constants.DEBUG) {
@@ -57,17 +110,75 @@ public class GameClass extends Game {
         } else {
             this.setScreen(this.mainMenuScreen);
         }
+        loader.record("screens", phaseStart);
+    }
+
+    /**
+     * Renders the current screen and the profiler overlay, measuring the whole frame.
+     * F3 shows or hides the overlay and F4 exports the recorded trace. The first frame after startup finishes the startup timings.
+     */
+    @Override
+    public void render() {
+        this.profiler.beginFrame();
+        super.render();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            this.profilerOverlay.setVisible(!this.profilerOverlay.isVisible());
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            this.exportTrace();
+        }
+        this.profilerOverlay.draw(Gdx.graphics.getDeltaTime());
+        this.profiler.endFrame();
+
+        if (this.startupLoader != null && this.mainMenuScreen != null) {
+            this.startupLoader.mark("first menu frame");
+            this.startupLoader.logTimings();
+            this.startupLoader.dispose();
+            this.startupLoader = null;
+        }
+    }
+
+    private void exportTrace() {
+        File file = Gdx.files.local("traces/trace-" + System.currentTimeMillis() + ".json").file();
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            this.profiler.exportTrace(file);
+            System.out.println("Exported profiler trace to " + file.getAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Could not export profiler trace: " + e.getMessage());
+        }
+    }
+
+    public Profiler getProfiler() {
+        return this.profiler;
+    }
+
+    public RandomService getRandomService() {
+        return this.randomService;
+    }
+
+    public SaveGame getSaveGame() {
+        return this.saveGame;
     }
 
     /**
      * Called when this game is being disposed of. This method disposes
-     * of the main menu screen, settings screen, and skin.
+     * of the main menu screen, settings screen, Pokedex, save file and the shared assets, which include the skin and the music.
+     * If the game is closed while it is still loading, only the loader and the assets are disposed.
      */
     @Override
     public void dispose() {
         super.dispose();
-        this.mainMenuScreen.dispose();
-        this.settingsScreen.dispose();
-        this.skin.dispose();
+        if (this.startupLoader != null) {
+            this.startupLoader.dispose();
+        }
+        if (this.mainMenuScreen != null) {
+            this.mainMenuScreen.dispose();
+            this.settingsScreen.dispose();
+            this.pokedex.dispose();
+            this.saveGame.dispose();
+        }
+        AtlasCache.getInstance().dispose();
+        this.profilerOverlay.dispose();
     }
 }
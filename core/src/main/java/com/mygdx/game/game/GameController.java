@@ -4,18 +4,22 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
 import com.mygdx.game.character.Player;
 import com.mygdx.game.pokemon.Pokemon;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * Class that handles the inputs and checks for collisions within the game.
  */
 public class GameController {
     private final Player player;
     private final GameScreen gameScreen;
+    private final Rectangle futureX;
+    private final Rectangle futureY;
+    private final Rectangle current;
+    private final Rectangle sweptArea;
+    private final Array<SpatialGrid.Entry<RectangleMapObject>> mapObjectCandidates;
+    private final Array<SpatialGrid.Entry<Pokemon>> pokemonCandidates;
 
     /**
      * Constructs a new GameController with the specified player and game screen.
@@ -26,6 +30,12 @@ public class GameController {
     public GameController(Player player, GameScreen gameScreen) {
         this.player = player;
         this.gameScreen = gameScreen;
+        this.futureX = new Rectangle();
+        this.futureY = new Rectangle();
+        this.current = new Rectangle();
+        this.sweptArea = new Rectangle();
+        this.mapObjectCandidates = new Array<>(false, 16);
+        this.pokemonCandidates = new Array<>(false, 16);
     }
 
     /**
@@ -64,39 +74,45 @@ public class GameController {
      * Checks if there's a collision between the player and other game objects,
      * including collision objects, exits and other pokemons. The player's movement is
      * adjusted based on these collisions.
+     * Only the objects indexed in the grid cells covered by the player's movement this frame are tested.
      *
-     * @param delta            the time interval for the game update
-     * @param collisionObjects the list of objects in the game map that can collide with the player
-     * @param exits            the list of exits in the game map
-     * @param pokemons         the list of pokemons in the game map
+     * @param delta the time interval for the game update
+     * @param zone  the zone the player is in
      */
-    public void checkCollisions(float delta, List<RectangleMapObject> collisionObjects, List<RectangleMapObject> exits, Map<Pokemon, Rectangle> pokemons) {
-        Rectangle futureX = new Rectangle(this.player.getX() + this.player.getVelocity().x * delta, this.player.getY(), this.player.getWidth(), this.player.getHeight());
-        Rectangle futureY = new Rectangle(this.player.getX(), this.player.getY() + this.player.getVelocity().y * delta, this.player.getWidth(), this.player.getHeight());
-        Rectangle current = new Rectangle(this.player.getX(), this.player.getY(), this.player.getWidth(), this.player.getHeight());
+    public void checkCollisions(float delta, Zone zone) {
+        this.futureX.set(this.player.getX() + this.player.getVelocity().x * delta, this.player.getY(), this.player.getWidth(), this.player.getHeight());
+        this.futureY.set(this.player.getX(), this.player.getY() + this.player.getVelocity().y * delta, this.player.getWidth(), this.player.getHeight());
+        this.current.set(this.player.getX(), this.player.getY(), this.player.getWidth(), this.player.getHeight());
+        this.sweptArea.set(this.current).merge(this.futureX).merge(this.futureY);
 
-        for (RectangleMapObject collisionObject : collisionObjects) {
-            if (futureX.overlaps(collisionObject.getRectangle())) {
+        zone.queryCollisionObjects(this.sweptArea, this.mapObjectCandidates);
+        for (int i = 0; i < this.mapObjectCandidates.size; i++) {
+            Rectangle collisionObject = this.mapObjectCandidates.get(i).getBounds();
+            if (this.futureX.overlaps(collisionObject)) {
                 this.player.getVelocity().x = 0;
                 return;
             }
-            if (futureY.overlaps(collisionObject.getRectangle())) {
+            if (this.futureY.overlaps(collisionObject)) {
                 this.player.getVelocity().y = 0;
                 return;
             }
         }
 
-        for (RectangleMapObject exit : exits) {
-            if (futureX.overlaps(exit.getRectangle()) || futureY.overlaps(exit.getRectangle())) {
-                String nextZone = exit.getName();
+        zone.queryExits(this.sweptArea, this.mapObjectCandidates);
+        for (int i = 0; i < this.mapObjectCandidates.size; i++) {
+            SpatialGrid.Entry<RectangleMapObject> exit = this.mapObjectCandidates.get(i);
+            if (this.futureX.overlaps(exit.getBounds()) || this.futureY.overlaps(exit.getBounds())) {
+                String nextZone = exit.getValue().getName();
                 this.gameScreen.switchZone(nextZone);
                 return;
             }
         }
 
-        for (Map.Entry<Pokemon, Rectangle> pokemon : pokemons.entrySet()) {
-            if (current.overlaps(pokemon.getValue())) {
-                this.gameScreen.startBattle(pokemon.getKey());
+        zone.queryPokemons(this.current, this.pokemonCandidates);
+        for (int i = 0; i < this.pokemonCandidates.size; i++) {
+            SpatialGrid.Entry<Pokemon> pokemon = this.pokemonCandidates.get(i);
+            if (this.current.overlaps(pokemon.getBounds())) {
+                this.gameScreen.startBattle(pokemon.getValue());
                 return;
             }
         }
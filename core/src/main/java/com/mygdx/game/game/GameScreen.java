@@ -3,24 +3,27 @@ package com.mygdx.game.game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.maps.objects.RectangleMapObject;
-import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.math.Interpolation;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.mygdx.game.asset.AtlasCache;
 import com.mygdx.game.character.Player;
 import com.mygdx.game.pokemon.Pokedex;
 import com.mygdx.game.pokemon.Pokemon;
-
-import java.util.ArrayList;
+import com.mygdx.game.profiler.Profiler;
+import com.mygdx.game.random.RandomService;
 
 /**
  * Class that represents the game screen where the gameplay is rendered.
@@ -29,44 +32,71 @@ import java.util.ArrayList;
  * handling screen resizing, and disposing resources when they are no longer needed.
  */
 public class GameScreen implements Screen {
-    private static final int MAP_SIZE = 48 * 16;
+    private static final int VIEW_SIZE = 48 * 16;
     private final GameClass game;
+    private final Profiler profiler;
     private final Stage environmentStage;
+    private final EntityRenderer entityRenderer;
     private final Player player;
     private final Pokedex pokedex;
     private final Skin skin;
     private final GameController gameController;
+    private final ZoneStreamer zoneStreamer;
+    private final Player.ChangeListener playerListener;
+    private final Pokemon.ChangeListener pokemonListener;
+    private final ObjectMap<Pokemon, Label> debugLabels;
+    private final ObjectSet<Pokemon> changedPokemons;
     private Table debugTable;
+    private Label playerLabel;
+    private boolean playerChanged;
     private Stage hudStage;
     private Stage pauseStage;
+    private Table pauseTable;
+    private TextButton playerButton;
+    private BattleScreen battleScreen;
     private boolean isPaused;
     private Zone zone;
     private String currentZone;
-    private ArrayList<RectangleMapObject> collisionObjects;
-    private ArrayList<RectangleMapObject> exitHitboxes;
-    private ArrayList<RectangleMapObject> pokemonSpawnAreas;
-    private TiledMapRenderer mapRenderer;
+    private final ChunkedMapRenderer mapRenderer;
 
     public GameScreen(GameClass game, Skin skin, Player player, Pokedex pokedex) {
+        this(game, skin, player, pokedex, "starter_town");
+    }
+
+    /**
+     * Constructs a new GameScreen starting in the given zone, used when a saved game is loaded.
+     *
+     * @param game     The main game class
+     * @param skin     The skin for styling
+     * @param player   The player
+     * @param pokedex  The game's Pokedex
+     * @param zoneName The name of the zone the player starts in
+     */
+    public GameScreen(GameClass game, Skin skin, Player player, Pokedex pokedex, String zoneName) {
         this.game = game;
+        this.profiler = game.getProfiler();
         this.skin = skin;
         this.player = player;
         this.pokedex = pokedex;
         this.gameController = new GameController(this.player, this);
-        this.environmentStage = new Stage(new FitViewport(MAP_SIZE, MAP_SIZE));
-
-        this.environmentStage.getCamera().position.set(MAP_SIZE / 2f, MAP_SIZE / 2f, 0);
-        this.environmentStage.getCamera().update();
-        this.environmentStage.addActor(this.player);
-
-        this.zone = new Zone("starter_town", this.player, this.pokedex);
+        this.playerListener = changedPlayer -> this.playerChanged = true;
+        this.pokemonListener = this::pokemonChanged;
+        this.debugLabels = new ObjectMap<>();
+        this.changedPokemons = new ObjectSet<>();
+        this.environmentStage = new Stage(new FitViewport(VIEW_SIZE, VIEW_SIZE));
+        this.entityRenderer = new EntityRenderer();
+
+        this.zoneStreamer = new ZoneStreamer(AtlasCache.getInstance().getAssetManager());
+        this.zone = new Zone(zoneName, this.zoneStreamer.obtain(zoneName), this.player, this.pokedex, this.game.getRandomService().get(RandomService.Stream.SPAWN));
+        this.zoneStreamer.preloadNeighbours(this.zone.getMapName(), this.zone.getTiledMap());
+        this.addEntities();
 
         this.currentZone = this.zone.getMapName();
 
-        this.mapRenderer = new OrthogonalTiledMapRenderer(this.zone.getTiledMap(), this.environmentStage.getBatch());
+        this.mapRenderer = new ChunkedMapRenderer(this.zone.getTiledMap(), this.environmentStage.getBatch());
 
-        this.initZone();
         this.initHUD();
+        this.initPause();
     }
 
     private void initHUD() {
@@ -81,68 +111,92 @@ public class GameScreen implements Screen {
             this.debugTable.setFillParent(true);
             this.debugTable.left();
             this.debugTable.defaults().pad(5);
-            for (Pokemon pokemon : this.player.getParty()) {
-                Label label = new Label(pokemon.toString(), this.skin);
-                label.setName(pokemon.getName());
-                this.debugTable.add(label).row();
-            }
             this.hudStage.addActor(this.debugTable);
         }
 
-        Label playerLabel = new Label(this.player.toString(), this.skin);
-        playerLabel.setName("player");
+        this.playerLabel = new Label(this.player.toString(), this.skin);
+        this.player.addChangeListener(this.playerListener);
+        this.playerChanged = true;
 
-        table.add(playerLabel).row();
+        table.add(this.playerLabel).row();
         this.hudStage.addActor(table);
     }
 
+    private void pokemonChanged(Pokemon pokemon) {
+        this.changedPokemons.add(pokemon);
+    }
+
+    /**
+     * Rebuilds the labels whose player or Pokemon changed since the last frame. Nothing is rebuilt,
+     * and nothing is allocated, on frames where nothing changed.
+     */
     private void updateHUD() {
-        if (Constants.DEBUG) {
-            for (Pokemon pokemon : this.player.getParty()) {
-                Label label = this.debugTable.findActor(pokemon.getName());
-                label.setText(pokemon.toString());
+        if (this.playerChanged) {
+            this.playerChanged = false;
+            this.playerLabel.setText(this.player.toString());
+            if (Constants.DEBUG) {
+                this.bindDebugLabels();
             }
         }
-
-        Label playerLabel = this.hudStage.getRoot().findActor("player");
-        playerLabel.setText(this.player.toString());
+        if (this.changedPokemons.size > 0) {
+            for (Pokemon pokemon : this.changedPokemons) {
+                Label label = this.debugLabels.get(pokemon);
+                if (label != null) {
+                    label.setText(pokemon.toString());
+                }
+            }
+            this.changedPokemons.clear();
+        }
     }
 
-    private void initZone() {
-        if (this.collisionObjects != null) {
-            this.collisionObjects.clear();
-        }
-        if (this.exitHitboxes != null) {
-            this.exitHitboxes.clear();
+    /**
+     * Creates a debug label for every Pokemon in the party, listening to the Pokemon that joined the party
+     * and no longer listening to the ones that left it.
+     */
+    private void bindDebugLabels() {
+        for (Pokemon pokemon : this.debugLabels.keys()) {
+            pokemon.removeChangeListener(this.pokemonListener);
         }
-        if (this.pokemonSpawnAreas != null) {
-            this.pokemonSpawnAreas.clear();
+        this.debugLabels.clear();
+        this.debugTable.clearChildren();
+        for (Pokemon pokemon : this.player.getParty()) {
+            Label label = new Label(pokemon.toString(), this.skin);
+            this.debugLabels.put(pokemon, label);
+            this.debugTable.add(label).row();
+            pokemon.addChangeListener(this.pokemonListener);
         }
+    }
 
-        this.collisionObjects = (ArrayList<RectangleMapObject>) this.zone.getCollisionObjects();
-        this.pokemonSpawnAreas = (ArrayList<RectangleMapObject>) this.zone.getPokemonSpawnAreas();
-        this.exitHitboxes = (ArrayList<RectangleMapObject>) this.zone.getExitHitboxes();
+    /**
+     * Hands the player and the wild Pokemon of the current zone to the entity renderer.
+     */
+    private void addEntities() {
+        this.entityRenderer.clear();
+        this.entityRenderer.add(this.player);
+        for (Pokemon pokemon : this.zone.getPokemons().keySet()) {
+            this.entityRenderer.add(pokemon);
+        }
     }
 
     /**
-     * Switches the current game zone to a new one.
+     * Switches the current game zone to a new one. The map of the next zone is normally already
+     * preloaded by the ZoneStreamer, so no map is parsed on the render thread.
+     * The zones adjacent to the new zone are queued for preloading afterwards.
      *
      * @param nextZone the name of the zone to switch to
      */
     public void switchZone(String nextZone) {
-        this.zone.getTiledMap().dispose();
-        this.environmentStage.clear();
-        this.environmentStage.addActor(this.player);
+        long startTime = System.nanoTime();
+        this.zone.dispose();
 
         String prevZone = this.currentZone;
         this.currentZone = nextZone;
 
-        this.zone = new Zone(nextZone, this.player, this.pokedex);
-        this.mapRenderer = new OrthogonalTiledMapRenderer(this.zone.getTiledMap(), this.environmentStage.getBatch());
-
-        this.initZone();
-
-        this.zone.getPokemons().keySet().forEach(this.environmentStage::addActor);
+        TiledMap tiledMap = this.zoneStreamer.obtain(nextZone);
+        this.zone = new Zone(nextZone, tiledMap, this.player, this.pokedex, this.game.getRandomService().get(RandomService.Stream.SPAWN));
+        this.zoneStreamer.preloadNeighbours(nextZone, tiledMap);
+        this.mapRenderer.setMap(tiledMap);
+        this.addEntities();
 
         //TODO refactor this to be more generic
         if (this.currentZone.equals("starter_forest") && prevZone.equals("starter_town")) {
@@ -151,26 +205,35 @@ public class GameScreen implements Screen {
         if (this.currentZone.equals("starter_town") && prevZone.equals("starter_forest")) {
             this.player.setPosition(723, 610);
         }
+
+        if (Constants.DEBUG) {
+            System.out.println("Switched to zone " + nextZone + " in " + (System.nanoTime() - startTime) / 1_000_000f + " ms");
+        }
+        this.save();
     }
 
     /**
-     * Pauses the game. This method sets the pause stage and its buttons,
-     * such as Pokedex, Pokemon, Bag, Player, Save, Options, and Exit.
+     * Saves the game in the background. Only a snapshot of the game is taken on the render thread.
      */
+    public void save() {
+        this.game.getSaveGame().save(this.player, this.currentZone, this.pokedex);
+    }
 
-    public void pauseGame() {
-        this.isPaused = true;
-
+    /**
+     * Builds the pause panel and its buttons, such as Pokedex, Pokemon, Bag, Player, Save, Options, and Exit.
+     * The panel is built once and only shown again by {@link #pauseGame()}.
+     */
+    private void initPause() {
         this.pauseStage = new Stage(new ScreenViewport());
-        Table pauseTable = new Table();
-        pauseTable.setFillParent(true);
-        pauseTable.defaults().uniform().pad(2).size(200, 50);
-        this.pauseStage.addActor(pauseTable);
+        this.pauseTable = new Table();
+        this.pauseTable.setFillParent(true);
+        this.pauseTable.defaults().uniform().pad(2).size(200, 50);
+        this.pauseStage.addActor(this.pauseTable);
 
         TextButton pokedexButton = new TextButton("Pokedex", this.skin);
         TextButton pokemonButton = new TextButton("Pokemon", this.skin);
         TextButton bagButton = new TextButton("Bag", this.skin);
-        TextButton playerButton = new TextButton(this.player.getName(), this.skin);
+        this.playerButton = new TextButton(this.player.getName(), this.skin);
         TextButton saveButton = new TextButton("Save", this.skin);
         TextButton optionsButton = new TextButton("Options", this.skin);
         TextButton exitButton = new TextButton("Exit", this.skin);
@@ -196,7 +259,7 @@ public class GameScreen implements Screen {
             }
         });
 
-        playerButton.addListener(new ClickListener() {
+        this.playerButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
                 // TODO player info
@@ -206,7 +269,7 @@ public class GameScreen implements Screen {
         saveButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                //TODO save the game
+                GameScreen.this.save();
             }
         });
 
@@ -224,24 +287,35 @@ public class GameScreen implements Screen {
             }
         });
 
-        ButtonGroup<TextButton> buttonGroup = new ButtonGroup<>(pokedexButton, pokemonButton, bagButton, playerButton, saveButton, optionsButton, exitButton);
+        ButtonGroup<TextButton> buttonGroup = new ButtonGroup<>(pokedexButton, pokemonButton, bagButton, this.playerButton, saveButton, optionsButton, exitButton);
 
         for (TextButton button : buttonGroup.getButtons()) {
-            pauseTable.add(button);
-            pauseTable.row();
+            this.pauseTable.add(button);
+            this.pauseTable.row();
         }
+    }
 
-        pauseTable.setPosition(0, Gdx.graphics.getHeight());
-        pauseTable.addAction(Actions.moveTo(0, 0, 1, Interpolation.sine));
+    /**
+     * Pauses the game. The pause panel built by {@link #initPause()} slides in from the top of the screen;
+     * the action comes from the libGDX action pool, so pausing allocates nothing.
+     */
+    public void pauseGame() {
+        this.isPaused = true;
+
+        this.playerButton.setText(this.player.getName());
+        this.pauseTable.clearActions();
+        this.pauseTable.setPosition(0, Gdx.graphics.getHeight());
+        this.pauseTable.addAction(Actions.moveTo(0, 0, 1, Interpolation.sine));
 
         Gdx.input.setInputProcessor(this.pauseStage);
     }
 
     /**
-     * Resumes the game by setting isPaused to false.
+     * Resumes the game by setting isPaused to false and handing the input back to the environment stage.
      */
     public void resumeGame() {
         this.isPaused = false;
+        Gdx.input.setInputProcessor(this.environmentStage);
     }
 
     /**
@@ -255,11 +329,44 @@ public class GameScreen implements Screen {
 
     /**
      * Starts a new battle by switching to a BattleScreen.
+     * The Pokemon leaves the zone, so it cannot be engaged again after the battle.
      *
      * @param enemyPokemon the Pokemon that the player will fight against
      */
     public void startBattle(Pokemon enemyPokemon) {
-        this.game.setScreen(new BattleScreen(this.game, this, this.skin, this.player, enemyPokemon, enemyPokemon));
+        this.zone.removePokemon(enemyPokemon);
+        this.entityRenderer.remove(enemyPokemon);
+        this.showBattle(enemyPokemon);
+    }
+
+    /**
+     * Switches to the BattleScreen. The screen is created for the first battle and reused for every later one.
+     *
+     * @param enemyPokemon the Pokemon that the player will fight against
+     */
+    private void showBattle(Pokemon enemyPokemon) {
+        if (this.battleScreen == null) {
+            this.battleScreen = new BattleScreen(this.game, this, this.skin, this.player, enemyPokemon);
+        } else {
+            this.battleScreen.start(enemyPokemon);
+        }
+        this.game.setScreen(this.battleScreen);
+    }
+
+    /**
+     * Centers the camera on the player, keeping it inside the map. A map smaller than the view is centered instead.
+     */
+    private void followPlayer() {
+        Camera camera = this.environmentStage.getCamera();
+        float halfWidth = camera.viewportWidth / 2;
+        float halfHeight = camera.viewportHeight / 2;
+        float mapWidth = this.mapRenderer.getMapWidth();
+        float mapHeight = this.mapRenderer.getMapHeight();
+        float x = this.player.getX() + this.player.getWidth() / 2;
+        float y = this.player.getY() + this.player.getHeight() / 2;
+        camera.position.x = mapWidth <= camera.viewportWidth ? mapWidth / 2 : MathUtils.clamp(x, halfWidth, mapWidth - halfWidth);
+        camera.position.y = mapHeight <= camera.viewportHeight ? mapHeight / 2 : MathUtils.clamp(y, halfHeight, mapHeight - halfHeight);
+        camera.update();
     }
 
     /**
@@ -273,33 +380,50 @@ public class GameScreen implements Screen {
     public void render(float delta) {
         ScreenUtils.clear(0.54f, 1, 0.61f, 1);
 
+        this.profiler.begin(Profiler.Section.STREAMING);
+        this.zoneStreamer.update();
+        this.profiler.end(Profiler.Section.STREAMING);
+
+        this.profiler.begin(Profiler.Section.INPUT);
         this.gameController.handleInput();
-        this.gameController.checkCollisions(delta, this.collisionObjects, this.exitHitboxes, this.zone.getPokemons());
+        this.profiler.end(Profiler.Section.INPUT);
 
+        this.profiler.begin(Profiler.Section.COLLISION);
+        this.gameController.checkCollisions(delta, this.zone);
+        this.profiler.end(Profiler.Section.COLLISION);
+
+        this.profiler.begin(Profiler.Section.PLAYER);
         this.player.update(delta);
+        this.followPlayer();
+        this.profiler.end(Profiler.Section.PLAYER);
 
-        this.environmentStage.getCamera().update();
         this.environmentStage.getViewport().apply();
 
-        this.mapRenderer.setView((OrthographicCamera) this.environmentStage.getCamera());
-        this.mapRenderer.render();
+        this.profiler.begin(Profiler.Section.MAP);
+        this.mapRenderer.render((OrthographicCamera) this.environmentStage.getCamera());
+        this.profiler.end(Profiler.Section.MAP);
 
-        this.environmentStage.act(delta);
-        this.environmentStage.draw();
+        this.profiler.begin(Profiler.Section.ENTITIES);
+        this.entityRenderer.draw(this.environmentStage.getBatch(), this.environmentStage.getCamera());
+        this.profiler.end(Profiler.Section.ENTITIES);
 
+        this.profiler.begin(Profiler.Section.HUD);
         this.updateHUD();
         this.hudStage.getViewport().apply();
         this.hudStage.act(delta);
         this.hudStage.draw();
+        this.profiler.end(Profiler.Section.HUD);
 
         if (this.isPaused) {
+            this.profiler.begin(Profiler.Section.PAUSE_MENU);
             this.pauseStage.getViewport().apply();
             this.pauseStage.act(delta);
             this.pauseStage.draw();
+            this.profiler.end(Profiler.Section.PAUSE_MENU);
         }
 
         if (Constants.DEBUG && Gdx.input.isKeyPressed(Input.Keys.Z)) {
-            this.game.setScreen(new BattleScreen(this.game, this, this.skin, this.player, this.pokedex.getPokemon("bulbasaur"), this.pokedex.getPokemon("bulbasaur")));
+            this.showBattle(this.pokedex.getPokemon("bulbasaur"));
         }
     }
 
@@ -322,6 +446,7 @@ public class GameScreen implements Screen {
     public void resize(int width, int height) {
         this.hudStage.getViewport().update(width, height, true);
         this.environmentStage.getViewport().update(width, height, true);
+        this.pauseStage.getViewport().update(width, height, true);
     }
 
     /**
@@ -329,9 +454,19 @@ public class GameScreen implements Screen {
      */
     @Override
     public void dispose() {
+        this.player.removeChangeListener(this.playerListener);
+        for (Pokemon pokemon : this.debugLabels.keys()) {
+            pokemon.removeChangeListener(this.pokemonListener);
+        }
+        this.zone.dispose();
+        this.zoneStreamer.dispose();
+        this.mapRenderer.dispose();
         this.environmentStage.dispose();
         this.hudStage.dispose();
         this.pauseStage.dispose();
+        if (this.battleScreen != null) {
+            this.battleScreen.dispose();
+        }
     }
 
     // The following methods are not used in this class, but they are required by the Screen interface.
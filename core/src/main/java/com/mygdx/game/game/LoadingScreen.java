@@ -0,0 +1,99 @@
+package com.mygdx.game.game;
+
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+
+/**
+ * The LoadingScreen is shown while the game starts. It drives the {@link StartupLoader} every frame
+ * and draws its progress as a bar. It is drawn with shapes only, as the skin is one of the things being loaded.
+ */
+public class LoadingScreen implements Screen {
+    private static final float BAR_WIDTH = 400;
+    private static final float BAR_HEIGHT = 24;
+    private final GameClass game;
+    private final StartupLoader loader;
+    private final ShapeRenderer shapeRenderer;
+    private final ScreenViewport viewport;
+    private boolean firstFrame;
+
+    /**
+     * Constructs a new LoadingScreen.
+     *
+     * @param game   The main game class, which is told when loading is done
+     * @param loader The started loader
+     */
+    public LoadingScreen(GameClass game, StartupLoader loader) {
+        this.game = game;
+        this.loader = loader;
+        this.shapeRenderer = new ShapeRenderer();
+        this.viewport = new ScreenViewport();
+        this.firstFrame = true;
+    }
+
+    @Override
+    public void show() {
+        //unused
+    }
+
+    /**
+     * Updates the loader and draws the progress bar. Once everything is loaded the game is finished starting,
+     * which replaces this screen.
+     *
+     * @param delta The time in seconds since the last render
+     */
+    @Override
+    public void render(float delta) {
+        if (this.loader.update()) {
+            this.game.finishStartup(this.loader);
+            return;
+        }
+
+        ScreenUtils.clear(0, 0, 0, 1);
+        this.viewport.apply(true);
+        float x = (this.viewport.getWorldWidth() - BAR_WIDTH) / 2;
+        float y = (this.viewport.getWorldHeight() - BAR_HEIGHT) / 2;
+        this.shapeRenderer.setProjectionMatrix(this.viewport.getCamera().combined);
+        this.shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        this.shapeRenderer.setColor(Color.DARK_GRAY);
+        this.shapeRenderer.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        this.shapeRenderer.setColor(Color.WHITE);
+        this.shapeRenderer.rect(x, y, BAR_WIDTH * this.loader.getProgress(), BAR_HEIGHT);
+        this.shapeRenderer.end();
+
+        if (this.firstFrame) {
+            this.firstFrame = false;
+            this.loader.mark("first frame");
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        this.viewport.update(width, height, true);
+    }
+
+    @Override
+    public void pause() {
+        //unused
+    }
+
+    @Override
+    public void resume() {
+        //unused
+    }
+
+    /**
+     * Disposes of the loading screen once the game has moved on.
+     */
+    @Override
+    public void hide() {
+        this.dispose();
+    }
+
+    @Override
+    public void dispose() {
+        this.shapeRenderer.dispose();
+    }
+}
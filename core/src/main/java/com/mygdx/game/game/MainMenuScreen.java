@@ -9,15 +9,17 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.mygdx.game.asset.AtlasCache;
 import com.mygdx.game.character.Player;
 import com.mygdx.game.item.Effect;
 import com.mygdx.game.item.Pokeball;
 import com.mygdx.game.item.Potion;
 import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.save.SaveGame;
 
 /**
  * The MainMenuScreen class represents the main menu of the game.
- * It provides options to play the game, access settings and exit the game.
+ * It provides options to play the game, load the saved game, access settings and exit the game.
  * Upon choosing to play the game, it prompts the player to enter their name and initializes a new game.
  */
 public class MainMenuScreen implements Screen {
@@ -50,7 +52,7 @@ public class MainMenuScreen implements Screen {
         this.createButtons();
         this.menu = new Stage(new ScreenViewport());
         this.menu.addActor(this.table);
-        this.menuMusic = Gdx.audio.newMusic(Gdx.files.internal("music/menu.mp3"));
+        this.menuMusic = AtlasCache.getInstance().getAssetManager().get(StartupLoader.MENU_MUSIC, Music.class);
         menuMusic.setLooping(true);
         menuMusic.setVolume(0.5f);
         menuMusic.play();
@@ -62,9 +64,11 @@ public class MainMenuScreen implements Screen {
         this.table.setFillParent(true);
 
         TextButton playButton = new TextButton("Play", this.skin);
+        TextButton loadButton = new TextButton("Load", this.skin);
         TextButton settingsButton = new TextButton("Settings", this.skin);
         TextButton exitButton = new TextButton("Exit", this.skin);
-        this.buttons = new ButtonGroup<>(playButton, settingsButton, exitButton);
+        loadButton.setDisabled(!this.game.getSaveGame().hasSave());
+        this.buttons = new ButtonGroup<>(playButton, loadButton, settingsButton, exitButton);
 
         for (TextButton button : this.buttons.getButtons()) {
             this.table.add(button).size(250, 100).pad(2);
@@ -102,6 +106,16 @@ public class MainMenuScreen implements Screen {
         this.table.add(continueButton).width(300).padTop(10);
     }
 
+    private void loadGame() {
+        SaveGame.LoadedGame loadedGame = this.game.getSaveGame().load(this.pokedex);
+        if (loadedGame == null) {
+            System.out.println("No saved game to load");
+            return;
+        }
+        this.isPlayClicked = true;
+        this.game.setScreen(new GameScreen(this.game, this.skin, loadedGame.player(), this.pokedex, loadedGame.zoneName()));
+    }
+
     /**
      * Renders the main menu screen.
      *
@@ -114,16 +128,18 @@ public class MainMenuScreen implements Screen {
         this.menu.act(delta);
         this.menu.draw();
 
-        // 0 - play, 1 - settings, 2 - exit
+        // 0 - play, 1 - load, 2 - settings, 3 - exit
         if (!this.isPlayClicked) {
             if (this.buttons.getButtons().get(0).isPressed()) {
                 this.isPlayClicked = true;
                 this.buttons.clear();
                 this.table.clear();
                 this.createEnterNameDialog();
-            } else if (this.buttons.getButtons().get(1).isPressed()) {
-                this.game.setScreen(new SettingsScreen(this.game, this.skin, this));
+            } else if (this.buttons.getButtons().get(1).isPressed() && !this.buttons.getButtons().get(1).isDisabled()) {
+                this.loadGame();
             } else if (this.buttons.getButtons().get(2).isPressed()) {
+                this.game.setScreen(new SettingsScreen(this.game, this.skin, this));
+            } else if (this.buttons.getButtons().get(3).isPressed()) {
                 Gdx.app.exit();
             }
         }
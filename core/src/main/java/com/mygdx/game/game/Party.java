@@ -1,21 +1,29 @@
 package com.mygdx.game.game;
 
 import com.badlogic.gdx.utils.Null;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.mygdx.game.pokemon.Pokemon;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Iterator;
 
 /**
  * The Party class represents a group of Pokemon. The class contains functionality to add, remove
  * and get a Pokemon. It also contains functionality to iterate over the Pokemon in the party.
+ * <p>
+ * The party listens to the changes of its Pokemon and keeps its total power points, its maximum level and
+ * the order of its Pokemon by speed up to date as they happen, so reading them never scans the party.
  */
 public class Party implements Iterable<Pokemon> {
     private static final int MAX_PARTY_SIZE = 6;
     private final ArrayList<Pokemon> pokemons;
+    private final ObjectIntMap<Pokemon> memberPowerPoints;
+    private final ObjectIntMap<Pokemon> memberLevels;
+    private final Pokemon.ChangeListener memberListener;
     private int powerPoints;
+    private int maxLevel;
     private int size;
+    private ChangeListener changeListener;
 
     /**
      * Constructs a new Party with no Pokemon.
@@ -23,11 +31,15 @@ public class Party implements Iterable<Pokemon> {
     public Party() {
         this.powerPoints = 0;
         this.pokemons = new ArrayList<>();
+        this.memberPowerPoints = new ObjectIntMap<>(MAX_PARTY_SIZE);
+        this.memberLevels = new ObjectIntMap<>(MAX_PARTY_SIZE);
+        this.memberListener = this::memberChanged;
     }
 
     /**
      * Adds a Pokemon to the party, while ensuring the party size doesn't exceed the maximum limit.
-     * The Pokemon are sorted by their speed in descending order. The total power points of the party are updated.
+     * The Pokemon is inserted at its place in the order by speed, descending, after the Pokemon as fast as it.
+     * The total power points and the maximum level of the party are updated.
      *
      * @param pokemon The Pokemon to be added to the party
      */
@@ -35,19 +47,71 @@ public class Party implements Iterable<Pokemon> {
         if (this.size >= MAX_PARTY_SIZE) {
             System.out.println("Party is full");
         }
-        this.pokemons.add(pokemon);
+        this.pokemons.add(this.findSpeedPosition(pokemon.getSpeed()), pokemon);
         this.size++;
-        this.powerPoints += pokemon.getPowerPoints();
 
-        this.pokemons.sort(Comparator.comparingInt(Pokemon::getSpeed).reversed());
+        int powerPoints = pokemon.getPowerPoints();
+        this.powerPoints += powerPoints;
+        this.memberPowerPoints.put(pokemon, powerPoints);
+        this.memberLevels.put(pokemon, pokemon.getLevel());
+        this.maxLevel = Math.max(this.maxLevel, pokemon.getLevel());
+        pokemon.addChangeListener(this.memberListener);
+        this.changed();
     }
 
     /**
-     * Returns the maximum level among all Pokemon in the party.
-     *
-     * @return The maximum level among all Pokemon in the party
+     * Returns the index the Pokemon with the given speed belongs at: after every Pokemon at least as fast.
      */
-    public int getMaxLevel() {
+    private int findSpeedPosition(int speed) {
+        for (int i = 0; i < this.pokemons.size(); i++) {
+            if (this.pokemons.get(i).getSpeed() < speed) {
+                return i;
+            }
+        }
+        return this.pokemons.size();
+    }
+
+    /**
+     * Updates the aggregates with the current stats of a Pokemon in the party.
+     * A Pokemon whose speed moved it out of order is moved to its new place, which notifies the listener.
+     */
+    private void memberChanged(Pokemon pokemon) {
+        int powerPoints = pokemon.getPowerPoints();
+        this.powerPoints += powerPoints - this.memberPowerPoints.get(pokemon, 0);
+        this.memberPowerPoints.put(pokemon, powerPoints);
+
+        int level = pokemon.getLevel();
+        int previousLevel = this.memberLevels.get(pokemon, 0);
+        if (level != previousLevel) {
+            this.memberLevels.put(pokemon, level);
+            if (level >= this.maxLevel) {
+                this.maxLevel = level;
+            } else if (previousLevel == this.maxLevel) {
+                this.maxLevel = this.findMaxLevel();
+            }
+        }
+
+        int index = this.indexOf(pokemon);
+        int speed = pokemon.getSpeed();
+        boolean outOfOrder = (index > 0 && this.pokemons.get(index - 1).getSpeed() < speed)
+                || (index + 1 < this.pokemons.size() && this.pokemons.get(index + 1).getSpeed() > speed);
+        if (outOfOrder) {
+            this.pokemons.remove(index);
+            this.pokemons.add(this.findSpeedPosition(speed), pokemon);
+            this.changed();
+        }
+    }
+
+    private int indexOf(Pokemon pokemon) {
+        for (int i = 0; i < this.pokemons.size(); i++) {
+            if (this.pokemons.get(i) == pokemon) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int findMaxLevel() {
         int maxLevel = 0;
         for (Pokemon pokemon : this.pokemons) {
             if (pokemon.getLevel() > maxLevel) {
@@ -57,9 +121,18 @@ public class Party implements Iterable<Pokemon> {
         return maxLevel;
     }
 
+    /**
+     * Returns the maximum level among all Pokemon in the party.
+     *
+     * @return The maximum level among all Pokemon in the party
+     */
+    public int getMaxLevel() {
+        return this.maxLevel;
+    }
+
     /**
      * Removes a Pokemon from the party. Throws an exception if the Pokemon isn't in the party or
-     * if the party has none Pokemon. Updates the total power points of the party.
+     * if the party has none Pokemon. Updates the total power points and the maximum level of the party.
      *
      * @param pokemon The Pokemon to be removed from the party
      */
@@ -72,9 +145,19 @@ public class Party implements Iterable<Pokemon> {
 
         this.pokemons.remove(pokemon);
         this.size--;
-        this.powerPoints -= pokemon.getPowerPoints();
+        pokemon.removeChangeListener(this.memberListener);
+        this.powerPoints -= this.memberPowerPoints.remove(pokemon, 0);
+        if (this.memberLevels.remove(pokemon, 0) == this.maxLevel) {
+            this.maxLevel = this.findMaxLevel();
+        }
+        this.changed();
     }
 
+    /**
+     * Returns the sum of the power points of the Pokemon in the party, always up to date with their stats.
+     *
+     * @return The total power points
+     */
     public int getPowerPoints() {
         return this.powerPoints;
     }
@@ -122,4 +205,31 @@ public class Party implements Iterable<Pokemon> {
     public Iterator<Pokemon> iterator() {
         return this.pokemons.iterator();
     }
+
+    /**
+     * Sets the listener that is notified whenever a Pokemon joins or leaves the party, or the order by speed changes.
+     *
+     * @param changeListener The listener, or null to remove the current listener
+     */
+    public void setChangeListener(@Null ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    private void changed() {
+        if (this.changeListener != null) {
+            this.changeListener.partyChanged(this);
+        }
+    }
+
+    /**
+     * Listener notified when the members of a Party or their order change.
+     */
+    public interface ChangeListener {
+        /**
+         * Called after a Pokemon has joined or left the party, or the order by speed has changed.
+         *
+         * @param party The Party that changed
+         */
+        void partyChanged(Party party);
+    }
 }
@@ -0,0 +1,183 @@
+package com.mygdx.game.game;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * A uniform grid that indexes axis-aligned rectangles by the cells they cover.
+ * Queries only visit the cells covered by the queried area, so their cost depends on
+ * the number of objects near the area and not on the total number of objects in the grid.
+ * Every entry is reported at most once per query, even if it spans multiple cells.
+ *
+ * @param <T> The type of the values stored in the grid
+ */
+public class SpatialGrid<T> {
+    private final float cellSize;
+    private final IntMap<Array<Entry<T>>> cells;
+    private final Array<Entry<T>> entries;
+    private int queryStamp;
+
+    /**
+     * Constructs a new empty SpatialGrid.
+     *
+     * @param cellSize The width and height of a cell in world units
+     */
+    public SpatialGrid(float cellSize) {
+        this.cellSize = cellSize;
+        this.cells = new IntMap<>();
+        this.entries = new Array<>();
+    }
+
+    private static int getKey(int cellX, int cellY) {
+        return (cellX & 0xFFFF) << 16 | (cellY & 0xFFFF);
+    }
+
+    private int toCell(float coordinate) {
+        return MathUtils.floor(coordinate / this.cellSize);
+    }
+
+    /**
+     * Adds a value to the grid. The bounds are copied; use {@link #update(Entry, float, float, float, float)}
+     * to move the entry later.
+     *
+     * @param value  The value to store
+     * @param bounds The bounds of the value in world coordinates
+     * @return The entry of the value in the grid
+     */
+    public Entry<T> insert(T value, Rectangle bounds) {
+        Entry<T> entry = new Entry<>(value, new Rectangle(bounds));
+        this.entries.add(entry);
+        this.addToCells(entry);
+        return entry;
+    }
+
+    /**
+     * Moves an entry to new bounds. Cells are only touched when the entry crosses a cell border.
+     *
+     * @param entry  The entry returned by insert
+     * @param x      The new x coordinate
+     * @param y      The new y coordinate
+     * @param width  The new width
+     * @param height The new height
+     */
+    public void update(Entry<T> entry, float x, float y, float width, float height) {
+        int minX = this.toCell(x);
+        int minY = this.toCell(y);
+        int maxX = this.toCell(x + width);
+        int maxY = this.toCell(y + height);
+        entry.bounds.set(x, y, width, height);
+        if (minX != entry.minCellX || minY != entry.minCellY || maxX != entry.maxCellX || maxY != entry.maxCellY) {
+            this.removeFromCells(entry);
+            this.addToCells(entry);
+        }
+    }
+
+    /**
+     * Removes an entry from the grid.
+     *
+     * @param entry The entry returned by insert
+     */
+    public void remove(Entry<T> entry) {
+        this.removeFromCells(entry);
+        this.entries.removeValue(entry, true);
+    }
+
+    /**
+     * Collects every entry whose cells intersect the given area. The result may contain entries
+     * that do not overlap the area itself, callers are expected to do the exact overlap test.
+     *
+     * @param area   The area to query
+     * @param result The array to fill; it is cleared first
+     */
+    public void query(Rectangle area, Array<Entry<T>> result) {
+        result.clear();
+        this.queryStamp++;
+        int minX = this.toCell(area.x);
+        int minY = this.toCell(area.y);
+        int maxX = this.toCell(area.x + area.width);
+        int maxY = this.toCell(area.y + area.height);
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellY = minY; cellY <= maxY; cellY++) {
+                Array<Entry<T>> cell = this.cells.get(getKey(cellX, cellY));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size; i++) {
+                    Entry<T> entry = cell.get(i);
+                    if (entry.stamp != this.queryStamp) {
+                        entry.stamp = this.queryStamp;
+                        result.add(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    public int getSize() {
+        return this.entries.size;
+    }
+
+    public Array<Entry<T>> getEntries() {
+        return this.entries;
+    }
+
+    private void addToCells(Entry<T> entry) {
+        Rectangle bounds = entry.bounds;
+        entry.minCellX = this.toCell(bounds.x);
+        entry.minCellY = this.toCell(bounds.y);
+        entry.maxCellX = this.toCell(bounds.x + bounds.width);
+        entry.maxCellY = this.toCell(bounds.y + bounds.height);
+        for (int cellX = entry.minCellX; cellX <= entry.maxCellX; cellX++) {
+            for (int cellY = entry.minCellY; cellY <= entry.maxCellY; cellY++) {
+                int key = getKey(cellX, cellY);
+                Array<Entry<T>> cell = this.cells.get(key);
+                if (cell == null) {
+                    cell = new Array<>(false, 4);
+                    this.cells.put(key, cell);
+                }
+                cell.add(entry);
+            }
+        }
+    }
+
+    private void removeFromCells(Entry<T> entry) {
+        for (int cellX = entry.minCellX; cellX <= entry.maxCellX; cellX++) {
+            for (int cellY = entry.minCellY; cellY <= entry.maxCellY; cellY++) {
+                Array<Entry<T>> cell = this.cells.get(getKey(cellX, cellY));
+                if (cell != null) {
+                    cell.removeValue(entry, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * A value stored in the grid together with its bounds.
+     *
+     * @param <T> The type of the value
+     */
+    public static final class Entry<T> {
+        private final T value;
+        private final Rectangle bounds;
+        private int stamp;
+        private int minCellX;
+        private int minCellY;
+        private int maxCellX;
+        private int maxCellY;
+
+        private Entry(T value, Rectangle bounds) {
+            this.value = value;
+            this.bounds = bounds;
+        }
+
+        public T getValue() {
+            return this.value;
+        }
+
+        public Rectangle getBounds() {
+            return this.bounds;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.mygdx.game.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.asset.AtlasCache;
+import com.mygdx.game.asset.DataBundle;
+import com.mygdx.game.pokemon.PokemonType;
+import com.mygdx.game.pokemon.SpeciesLoader;
+import com.mygdx.game.save.SaveGame;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads everything the game needs before the main menu can be shown.
+ * <p>
+ * The work is split by the thread it has to run on. Parsing the game data and the type chart and opening the save files
+ * only need the CPU and the disk, so they run on worker threads. The atlases, the skin and the menu music are queued in the
+ * shared AssetManager, which decodes the images and the audio on its own thread and only uploads the textures on the render thread,
+ * a few milliseconds every frame. Once both are done the game builds the Pokedex and the screens on the render thread.
+ * <p>
+ * The duration of every phase is recorded and logged together with the time until the first frames.
+ */
+public class StartupLoader implements Disposable {
+    public static final String SKIN = "skin/skin.json";
+    public static final String MENU_MUSIC = "music/menu.mp3";
+    private static final int UPDATE_MILLIS = 8;
+    private final long startTime;
+    private final LinkedHashMap<String, Float> phases;
+    private final AssetManager assetManager;
+    private final ExecutorService workers;
+    private Future<SpeciesLoader> speciesLoader;
+    private Future<SaveGame> saveGame;
+    private Future<?> typeChart;
+    private long assetsStartTime;
+    private boolean assetsLoaded;
+
+    /**
+     * Constructs a new StartupLoader. The startup time is measured from here.
+     */
+    public StartupLoader() {
+        this.startTime = System.nanoTime();
+        this.phases = new LinkedHashMap<>();
+        this.assetManager = AtlasCache.getInstance().getAssetManager();
+        this.workers = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "startup-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts loading. Must be called on the render thread.
+     */
+    public void start() {
+        this.speciesLoader = this.workers.submit(() -> {
+            long phaseStart = System.nanoTime();
+            SpeciesLoader loader = loadSpecies();
+            this.record("game data", phaseStart);
+            return loader;
+        });
+        this.typeChart = this.workers.submit(() -> {
+            long phaseStart = System.nanoTime();
+            PokemonType.loadEffectiveness(Gdx.files.internal("types.json"));
+            this.record("type chart", phaseStart);
+        });
+        this.saveGame = this.workers.submit(() -> {
+            long phaseStart = System.nanoTime();
+            SaveGame saveGame = new SaveGame(Gdx.files.local("saves").file());
+            this.record("save files", phaseStart);
+            return saveGame;
+        });
+        this.workers.shutdown();
+
+        this.assetsStartTime = System.nanoTime();
+        AtlasCache.getInstance().preload(AtlasCache.POKEMON_ATLAS);
+        AtlasCache.getInstance().preload(AtlasCache.TRAINER_ATLAS);
+        this.assetManager.load(SKIN, Skin.class);
+        this.assetManager.load(MENU_MUSIC, Music.class);
+    }
+
+    /**
+     * Loads the species and abilities from the compiled data bundle. During development, when the game runs
+     * without the bundle having been built, they are parsed from the JSON files instead.
+     */
+    private static SpeciesLoader loadSpecies() {
+        FileHandle bundleFile = Gdx.files.internal(DataBundle.FILE_NAME);
+        if (bundleFile.exists()) {
+            DataBundle bundle = DataBundle.load(bundleFile);
+            return new SpeciesLoader(bundle, new AbilityLoader(bundle));
+        }
+        System.out.println("No " + DataBundle.FILE_NAME + " found, loading pokemons.json and abilities.json");
+        return new SpeciesLoader(new AbilityLoader());
+    }
+
+    /**
+     * Gives the AssetManager a few milliseconds to finish loading and checks the workers.
+     * Called every frame on the render thread while the loading screen is shown.
+     *
+     * @return True once everything is loaded
+     */
+    public boolean update() {
+        if (!this.assetsLoaded && this.assetManager.update(UPDATE_MILLIS)) {
+            this.assetsLoaded = true;
+            this.record("assets", this.assetsStartTime);
+        }
+        return this.assetsLoaded && this.speciesLoader.isDone() && this.typeChart.isDone() && this.saveGame.isDone();
+    }
+
+    /**
+     * Returns how far the loading is, counting the assets and every worker task equally.
+     *
+     * @return The progress between 0 and 1
+     */
+    public float getProgress() {
+        float progress = this.assetManager.getProgress();
+        for (Future<?> task : new Future<?>[]{this.speciesLoader, this.typeChart, this.saveGame}) {
+            if (task.isDone()) {
+                progress++;
+            }
+        }
+        return progress / 4;
+    }
+
+    public SpeciesLoader getSpeciesLoader() {
+        return get(this.speciesLoader);
+    }
+
+    public SaveGame getSaveGame() {
+        return get(this.saveGame);
+    }
+
+    /**
+     * Waits for the type chart to be loaded into {@link PokemonType}, rethrowing its failure on the render thread.
+     */
+    public void awaitTypeChart() {
+        get(this.typeChart);
+    }
+
+    public Skin getSkin() {
+        return this.assetManager.get(SKIN, Skin.class);
+    }
+
+    /**
+     * Returns the result of a worker task, rethrowing its failure on the render thread.
+     */
+    private static <T> T get(Future<T> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw new GdxRuntimeException("Loading failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException("Loading was interrupted", e);
+        }
+    }
+
+    /**
+     * Records the duration of a phase that started at the given time.
+     *
+     * @param phase     The name of the phase
+     * @param startTime The value of {@link System#nanoTime()} when the phase started
+     */
+    public synchronized void record(String phase, long startTime) {
+        this.phases.put(phase, (System.nanoTime() - startTime) / 1_000_000f);
+    }
+
+    /**
+     * Records a point in time, measured from the construction of the loader.
+     *
+     * @param milestone The name of the milestone
+     */
+    public void mark(String milestone) {
+        this.record(milestone, this.startTime);
+    }
+
+    /**
+     * Prints the recorded phases and milestones.
+     */
+    public synchronized void logTimings() {
+        System.out.println("Startup timings:");
+        for (Map.Entry<String, Float> phase : this.phases.entrySet()) {
+            System.out.println("  " + phase.getKey() + ": " + phase.getValue() + " ms");
+        }
+    }
+
+    /**
+     * Stops the workers if they are still running. The loaded assets stay in the AssetManager.
+     */
+    @Override
+    public void dispose() {
+        this.workers.shutdownNow();
+    }
+}
@@ -4,52 +4,79 @@ import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.mygdx.game.asset.AtlasCache;
 import com.mygdx.game.character.Player;
 import com.mygdx.game.pokemon.Pokedex;
 import com.mygdx.game.pokemon.Pokemon;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * The Zone class represents a map or location in the game with various features like Pokemon spawn areas, collision objects, and exit points.
+ * The TiledMap of a zone is owned by the ZoneStreamer that loaded it; a Zone only holds
+ * a reference on the shared Pokemon atlas until it is disposed.
  */
-public class Zone {
+public class Zone implements Disposable {
+    private static final float GRID_CELL_SIZE = 64f;
     private final TiledMap tiledMap;
     private final String mapName;
     private final ArrayList<RectangleMapObject> collisionObjects;
     private final ArrayList<RectangleMapObject> exitHitboxes;
     private final ArrayList<RectangleMapObject> pokemonSpawnAreas;
     private final ArrayList<Pokemon> pokemons;
+    private final SpatialGrid<RectangleMapObject> collisionGrid;
+    private final SpatialGrid<RectangleMapObject> exitGrid;
+    private final SpatialGrid<Pokemon> pokemonGrid;
+    private final HashMap<Pokemon, SpatialGrid.Entry<Pokemon>> pokemonEntries;
+    private final HashMap<Pokemon, Rectangle> pokemonHitboxes;
+    private final Map<Pokemon, Rectangle> pokemonHitboxesView;
+    private final Pokemon.BoundsListener hitboxUpdater;
+    private final RandomGenerator random;
 
     /**
      * Constructs a new Zone with the given parameters.
      *
-     * @param mapName The name of the map
-     * @param player  The player who is in this zone
-     * @param pokedex The Pokedex containing information about Pokemon
+     * @param mapName  The name of the map
+     * @param tiledMap The loaded TiledMap of the zone
+     * @param player   The player who is in this zone
+     * @param pokedex  The Pokedex containing information about Pokemon
+     * @param random   The random generator used to spawn the wild Pokemon
      */
-    public Zone(String mapName, Player player, Pokedex pokedex) {
+    public Zone(String mapName, TiledMap tiledMap, Player player, Pokedex pokedex, RandomGenerator random) {
         this.mapName = mapName;
-        this.tiledMap = new TmxMapLoader().load("tmx/" + this.mapName + ".tmx");
+        this.tiledMap = tiledMap;
+        this.random = random;
+        AtlasCache.getInstance().acquire(AtlasCache.POKEMON_ATLAS);
         this.pokemons = new ArrayList<>();
         this.collisionObjects = new ArrayList<>();
         this.exitHitboxes = new ArrayList<>();
         this.pokemonSpawnAreas = new ArrayList<>();
+        this.collisionGrid = new SpatialGrid<>(GRID_CELL_SIZE);
+        this.exitGrid = new SpatialGrid<>(GRID_CELL_SIZE);
+        this.pokemonGrid = new SpatialGrid<>(GRID_CELL_SIZE);
+        this.pokemonEntries = new HashMap<>();
+        this.pokemonHitboxes = new HashMap<>();
+        this.pokemonHitboxesView = Collections.unmodifiableMap(this.pokemonHitboxes);
+        this.hitboxUpdater = this::updateHitbox;
 
         MapLayer collisionLayer = this.tiledMap.getLayers().get("Collision");
         for (MapObject object : collisionLayer.getObjects()) {
-            this.collisionObjects.add((RectangleMapObject) object);
+            RectangleMapObject collisionObject = (RectangleMapObject) object;
+            this.collisionObjects.add(collisionObject);
+            this.collisionGrid.insert(collisionObject, collisionObject.getRectangle());
         }
 //        this.collisionObjects = collisionLayer.getObjects().getByType(RectangleMapObject.class);
 
         MapLayer exits = this.tiledMap.getLayers().get("Exits");
         for (MapObject object : exits.getObjects()) {
-            this.exitHitboxes.add((RectangleMapObject) object);
+            RectangleMapObject exit = (RectangleMapObject) object;
+            this.exitHitboxes.add(exit);
+            this.exitGrid.insert(exit, exit.getRectangle());
         }
 //        this.exitHitboxes = exits.getObjects().getByType(RectangleMapObject.class);
 
@@ -72,8 +99,8 @@ public class Zone {
             Rectangle rectangle = area.getRectangle();
 
             for (int i = 0; i < 10; i++) {
-                float x = MathUtils.random(rectangle.getX(), rectangle.getX() + rectangle.getWidth());
-                float y = MathUtils.random(rectangle.getY(), rectangle.getY() + rectangle.getHeight());
+                float x = rectangle.getX() + this.random.nextFloat() * rectangle.getWidth();
+                float y = rectangle.getY() + this.random.nextFloat() * rectangle.getHeight();
 
                 Pokemon pokemon = this.randomizePokemonStats(player, pokedex);
 
@@ -90,6 +117,7 @@ public class Zone {
                     pokemon.setPosition(x, y);
                     spawnPoints.add(spawnPoint);
                     this.pokemons.add(pokemon);
+                    this.addPokemon(pokemon);
                 }
             }
         }
@@ -107,6 +135,7 @@ public class Zone {
 
     private Pokemon randomizePokemonStats(Player player, Pokedex pokedex) {
         int playerPartyPower = player.getPartyStrength();
+        int playerMaxLevel = player.getMaxLvlOfParty();
         Pokemon pokemon = pokedex.getRandomPokemon();
         int[] pokemonStats = pokemon.getStats();
 
@@ -114,10 +143,10 @@ public class Zone {
         // first stat is always level
         for (int i = 0; i < pokemonStats.length; i++) {
             if (i == 0) {
-                pokemonStats[i] = MathUtils.random(player.getMaxLvlOfParty() - 2, player.getMaxLvlOfParty() + 2);
+                pokemonStats[i] = this.random.nextInt(playerMaxLevel - 2, playerMaxLevel + 3);
                 continue;
             }
-            pokemonStats[i] += MathUtils.random(playerPartyPower / 5 - 2, playerPartyPower / 5 + 2);
+            pokemonStats[i] += this.random.nextInt(playerPartyPower / 5 - 2, playerPartyPower / 5 + 3);
         }
         pokemon.setStats(pokemonStats);
 
@@ -153,17 +182,72 @@ public class Zone {
 
     /**
      * Retrieves the Pokemon present in the zone along with their hitboxes.
+     * The hitboxes are cached and updated in place whenever a Pokemon moves, so this method does not allocate.
      *
-     * @return A unmodifiable Map with Pokemon as keys and their corresponding hitboxes as values
+     * @return A unmodifiable view of a Map with Pokemon as keys and their corresponding hitboxes as values
      */
     public Map<Pokemon, Rectangle> getPokemons() {
-        HashMap<Pokemon, Rectangle> pokemonHitbox = new HashMap<>();
+        return this.pokemonHitboxesView;
+    }
+
+    private void addPokemon(Pokemon pokemon) {
+        SpatialGrid.Entry<Pokemon> entry = this.pokemonGrid.insert(pokemon, new Rectangle(pokemon.getX(), pokemon.getY(), pokemon.getWidth(), pokemon.getHeight()));
+        this.pokemonEntries.put(pokemon, entry);
+        this.pokemonHitboxes.put(pokemon, entry.getBounds());
+        pokemon.setBoundsListener(this.hitboxUpdater);
+    }
 
-        for (Pokemon pokemon : this.pokemons) {
-            pokemonHitbox.put(pokemon, new Rectangle(pokemon.getX(), pokemon.getY(), pokemon.getWidth(), pokemon.getHeight()));
+    private void updateHitbox(Pokemon pokemon) {
+        SpatialGrid.Entry<Pokemon> entry = this.pokemonEntries.get(pokemon);
+        if (entry != null) {
+            this.pokemonGrid.update(entry, pokemon.getX(), pokemon.getY(), pokemon.getWidth(), pokemon.getHeight());
+        }
+    }
+
+    /**
+     * Removes a wild Pokemon from the zone, for example once the player has engaged it in a battle.
+     *
+     * @param pokemon The Pokemon to remove
+     */
+    public void removePokemon(Pokemon pokemon) {
+        SpatialGrid.Entry<Pokemon> entry = this.pokemonEntries.remove(pokemon);
+        if (entry != null) {
+            pokemon.setBoundsListener(null);
+            this.pokemonGrid.remove(entry);
+            this.pokemonHitboxes.remove(pokemon);
+            this.pokemons.remove(pokemon);
         }
+    }
 
-        return Collections.unmodifiableMap(pokemonHitbox);
+    /**
+     * Collects the collision objects whose grid cells intersect the given area, without allocating.
+     *
+     * @param area   The area to query, in world coordinates
+     * @param result The array to fill with candidates; it is cleared first
+     */
+    public void queryCollisionObjects(Rectangle area, Array<SpatialGrid.Entry<RectangleMapObject>> result) {
+        this.collisionGrid.query(area, result);
+    }
+
+    /**
+     * Collects the exits whose grid cells intersect the given area, without allocating.
+     *
+     * @param area   The area to query, in world coordinates
+     * @param result The array to fill with candidates; it is cleared first
+     */
+    public void queryExits(Rectangle area, Array<SpatialGrid.Entry<RectangleMapObject>> result) {
+        this.exitGrid.query(area, result);
+    }
+
+    /**
+     * Collects the wild Pokemon whose grid cells intersect the given area, without allocating.
+     * The bounds of every entry are the current hitbox of the Pokemon.
+     *
+     * @param area   The area to query, in world coordinates
+     * @param result The array to fill with candidates; it is cleared first
+     */
+    public void queryPokemons(Rectangle area, Array<SpatialGrid.Entry<Pokemon>> result) {
+        this.pokemonGrid.query(area, result);
     }
 
     /**
@@ -183,4 +267,13 @@ public class Zone {
     public TiledMap getTiledMap() {
         return this.tiledMap;
     }
+
+    /**
+     * Releases the reference of this zone on the shared Pokemon atlas.
+     * The TiledMap stays loaded in the ZoneStreamer so that returning to this zone is cheap.
+     */
+    @Override
+    public void dispose() {
+        AtlasCache.getInstance().release(AtlasCache.POKEMON_ATLAS);
+    }
 }
@@ -0,0 +1,166 @@
+package com.mygdx.game.game;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.badlogic.gdx.utils.ObjectLongMap;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * The ZoneStreamer loads the TiledMaps of zones in the background through an AssetManager.
+ * Whenever the player enters a zone, the zones reachable through its exits are queued for
+ * asynchronous loading so that the next zone switch does not have to parse anything on the render thread.
+ * A small number of recently visited maps is kept loaded; older maps are unloaded in least recently used order.
+ * The time it took to load every zone is recorded and printed once the zone finishes loading.
+ */
+public class ZoneStreamer implements Disposable {
+    private static final int MAX_CACHED_MAPS = 4;
+    private static final int UPDATE_BUDGET_MILLIS = 4;
+    private final AssetManager assetManager;
+    private final LinkedHashMap<String, String> recentMaps;
+    private final HashSet<String> pinnedMaps;
+    private final Array<String> pendingMaps;
+    private final ObjectLongMap<String> loadStartTimes;
+    private final ObjectFloatMap<String> loadTimes;
+
+    /**
+     * Constructs a new ZoneStreamer loading maps through the given AssetManager.
+     *
+     * @param assetManager The AssetManager used to load the TiledMaps
+     */
+    public ZoneStreamer(AssetManager assetManager) {
+        this.assetManager = assetManager;
+        this.recentMaps = new LinkedHashMap<>(MAX_CACHED_MAPS * 2, 0.75f, true);
+        this.pinnedMaps = new HashSet<>();
+        this.pendingMaps = new Array<>();
+        this.loadStartTimes = new ObjectLongMap<>();
+        this.loadTimes = new ObjectFloatMap<>();
+    }
+
+    private static String getFileName(String mapName) {
+        return "tmx/" + mapName + ".tmx";
+    }
+
+    /**
+     * Queues a map for asynchronous loading, unless it is already loaded or queued.
+     *
+     * @param mapName The name of the map
+     */
+    public void preload(String mapName) {
+        if (this.recentMaps.containsKey(mapName)) {
+            this.recentMaps.get(mapName);
+            return;
+        }
+        this.recentMaps.put(mapName, getFileName(mapName));
+        this.assetManager.load(getFileName(mapName), TiledMap.class);
+        this.pendingMaps.add(mapName);
+        this.loadStartTimes.put(mapName, System.nanoTime());
+    }
+
+    /**
+     * Queues every zone reachable through the exits of the given map and keeps them, together with the map itself,
+     * from being evicted. Maps that are no longer adjacent become eligible for eviction.
+     *
+     * @param mapName  The name of the map the player is in
+     * @param tiledMap The loaded TiledMap of that zone
+     */
+    public void preloadNeighbours(String mapName, TiledMap tiledMap) {
+        this.pinnedMaps.clear();
+        this.pinnedMaps.add(mapName);
+
+        MapLayer exits = tiledMap.getLayers().get("Exits");
+        if (exits != null) {
+            for (MapObject exit : exits.getObjects()) {
+                if (exit.getName() != null) {
+                    this.pinnedMaps.add(exit.getName());
+                    this.preload(exit.getName());
+                }
+            }
+        }
+        this.evict();
+    }
+
+    /**
+     * Returns the TiledMap of a zone. If the map has been preloaded this does not block;
+     * otherwise the map is loaded on the spot.
+     *
+     * @param mapName The name of the map
+     * @return The loaded TiledMap
+     */
+    public TiledMap obtain(String mapName) {
+        this.preload(mapName);
+        if (!this.assetManager.isLoaded(getFileName(mapName))) {
+            System.out.println("Zone " + mapName + " was not preloaded, loading it on the render thread");
+            this.assetManager.finishLoadingAsset(getFileName(mapName));
+            this.update();
+        }
+        return this.assetManager.get(getFileName(mapName), TiledMap.class);
+    }
+
+    /**
+     * Advances the background loading for at most a few milliseconds and records the load time of
+     * every map that finished loading. Should be called once per frame.
+     */
+    public void update() {
+        this.assetManager.update(UPDATE_BUDGET_MILLIS);
+        for (int i = this.pendingMaps.size - 1; i >= 0; i--) {
+            String mapName = this.pendingMaps.get(i);
+            if (this.assetManager.isLoaded(getFileName(mapName))) {
+                float millis = (System.nanoTime() - this.loadStartTimes.remove(mapName, 0)) / 1_000_000f;
+                this.loadTimes.put(mapName, millis);
+                this.pendingMaps.removeIndex(i);
+                if (Constants.DEBUG) {
+                    System.out.println("Loaded zone " + mapName + " in " + millis + " ms");
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns how long it took to load a zone, from being queued until it was ready.
+     *
+     * @param mapName The name of the map
+     * @return The load time in milliseconds, or -1 if the map has not finished loading
+     */
+    public float getLoadTimeMillis(String mapName) {
+        return this.loadTimes.get(mapName, -1);
+    }
+
+    public boolean isLoaded(String mapName) {
+        return this.assetManager.isLoaded(getFileName(mapName));
+    }
+
+    private void evict() {
+        Iterator<String> iterator = this.recentMaps.keySet().iterator();
+        while (this.recentMaps.size() > MAX_CACHED_MAPS && iterator.hasNext()) {
+            String mapName = iterator.next();
+            if (!this.pinnedMaps.contains(mapName)) {
+                iterator.remove();
+                this.pendingMaps.removeValue(mapName, false);
+                this.loadStartTimes.remove(mapName, 0);
+                this.assetManager.unload(getFileName(mapName));
+            }
+        }
+    }
+
+    /**
+     * Unloads every map loaded or queued by this streamer.
+     */
+    @Override
+    public void dispose() {
+        for (String fileName : this.recentMaps.values()) {
+            this.assetManager.unload(fileName);
+        }
+        this.recentMaps.clear();
+        this.pinnedMaps.clear();
+        this.pendingMaps.clear();
+        this.loadStartTimes.clear();
+    }
+}
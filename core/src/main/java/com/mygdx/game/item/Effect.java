@@ -1,8 +1,9 @@
 package com.mygdx.game.item;
 
-import com.badlogic.gdx.math.MathUtils;
 import com.mygdx.game.ability.Ability;
 
+import java.util.random.RandomGenerator;
+
 /**
  * The Effect enum represents different status effects that can be applied to game entities.
  */
@@ -26,10 +27,11 @@ public enum Effect {
      * The amount is then rounded to the nearest integer.
      *
      * @param ability The ability through which the effect is being applied.
+     * @param random  The random generator to draw from.
      * @return The calculated amount.
      */
-    public int getAmount(Ability ability) {
-        return (int) (ability.getPower() + MathUtils.random(-0.5f, 0.5f) * ability.getPower() / 2);
+    public int getAmount(Ability ability, RandomGenerator random) {
+        return (int) (ability.getPower() + random.nextFloat(-0.5f, 0.5f) * ability.getPower() / 2);
     }
 
     /**
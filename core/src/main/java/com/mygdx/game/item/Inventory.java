@@ -1,5 +1,7 @@
 package com.mygdx.game.item;
 
+import com.badlogic.gdx.utils.Null;
+
 import java.util.HashMap;
 import java.util.Iterator;
 
@@ -10,6 +12,7 @@ import java.util.Iterator;
  */
 public class Inventory implements Iterable<Item> {
     private final HashMap<String, Item> items;
+    private ChangeListener changeListener;
 
     /**
      * Constructs a new empty Inventory.
@@ -25,6 +28,7 @@ public class Inventory implements Iterable<Item> {
      */
     public void addItem(Item item) {
         this.items.put(item.getName(), item);
+        this.changed();
     }
 
     /**
@@ -43,7 +47,9 @@ public class Inventory implements Iterable<Item> {
      * @param name The name of the item to be removed.
      */
     public void removeItem(String name) {
-        this.items.remove(name);
+        if (this.items.remove(name) != null) {
+            this.changed();
+        }
     }
 
     /**
@@ -52,7 +58,7 @@ public class Inventory implements Iterable<Item> {
      * @param item The item to be removed.
      */
     public void removeItem(Item item) {
-        this.items.remove(item.getName());
+        this.removeItem(item.getName());
     }
 
     /**
@@ -73,4 +79,31 @@ public class Inventory implements Iterable<Item> {
     public Iterator<Item> iterator() {
         return this.items.values().iterator();
     }
+
+    /**
+     * Sets the listener that is notified whenever an item is added to or removed from the inventory.
+     *
+     * @param changeListener The listener, or null to remove the current listener
+     */
+    public void setChangeListener(@Null ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    private void changed() {
+        if (this.changeListener != null) {
+            this.changeListener.inventoryChanged(this);
+        }
+    }
+
+    /**
+     * Listener notified when the items of an Inventory change.
+     */
+    public interface ChangeListener {
+        /**
+         * Called after an item has been added or removed.
+         *
+         * @param inventory The Inventory that changed
+         */
+        void inventoryChanged(Inventory inventory);
+    }
 }
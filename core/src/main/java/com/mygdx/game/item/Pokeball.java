@@ -1,8 +1,9 @@
 package com.mygdx.game.item;
 
-import com.badlogic.gdx.math.MathUtils;
 import com.mygdx.game.pokemon.Pokemon;
 
+import java.util.random.RandomGenerator;
+
 /**
  * Pokeball is a specific item in the game that can be used to catch defeated Pokemon.
  * The chance of catching a Pokemon is 50%.
@@ -34,10 +35,11 @@ public class Pokeball implements Item {
      * Specifically, the chance of catching a Pokemon is 50%.
      *
      * @param pokemon The Pokemon to attempt to catch.
+     * @param random  The random generator deciding the catch.
      * @return True if the Pokemon was successfully caught, false otherwise.
      */
-    public boolean attemptToCatch(Pokemon pokemon) {
-        int catchChance = (int) (MathUtils.random() * 100);
+    public boolean attemptToCatch(Pokemon pokemon, RandomGenerator random) {
+        int catchChance = random.nextInt(100);
         if (catchChance < 50) {
             pokemon.setCollected(true);
             System.out.println("You caught " + pokemon.getName() + "!");
@@ -46,6 +46,10 @@ public class Potion implements UsableItem {
         return this.amount;
     }
 
+    public Effect getEffect() {
+        return this.effect;
+    }
+
     public int getDuration() {
         return this.duration;
     }
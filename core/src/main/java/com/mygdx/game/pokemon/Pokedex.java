@@ -1,143 +1,197 @@
 package com.mygdx.game.pokemon;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.utils.JsonReader;
-import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.Disposable;
 import com.mygdx.game.ability.Ability;
+import com.mygdx.game.ability.AbilityDefinition;
 import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.asset.AtlasCache;
+import com.mygdx.game.random.RandomService;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
-public class Pokedex implements Iterable<Pokemon> {
+/**
+ * The Pokedex holds the species loaded from pokemons.json and creates Pokemon from them.
+ * Startup only indexes the species by name; the set of abilities a species knows is rolled the first time
+ * a Pokemon of that species is requested. The rolled sets are kept in a small cache of the most recently used species,
+ * so memory grows with the species seen in a session rather than with the size of the dex.
+ * Every species rolls its set from its own seed, derived from the ability stream and its name, so an evicted set
+ * is rolled again exactly the same and the sets do not depend on the order in which species are requested.
+ * All Pokemon of a species share the species data and the ability definitions and only own their mutable stats.
+ */
+public class Pokedex implements Iterable<Species>, Disposable {
     private static final int NUM_OF_ABILITIES = 4;
     private static final int NUM_OF_STARTER_ABILITIES = 1;
-    private final HashMap<String, Pokemon> pokemons;
-    private final AbilityLoader abilityLoader;
+    private static final int ABILITY_SET_CACHE_SIZE = 16;
+    private final HashMap<String, Species> species;
+    private final LinkedHashMap<String, List<AbilityDefinition>> abilitySets;
+    private final HashSet<String> collected;
     private final String[] pokemonNames;
+    private final RandomGenerator spawnRandom;
+    private final long abilitySeed;
+    private int abilitySetsRolled;
 
-    public Pokedex(AbilityLoader abilityLoader) {
-        this.pokemons = new HashMap<>();
-        this.abilityLoader = abilityLoader;
-
-        JsonReader json = new JsonReader();
-        JsonValue entries = json.parse(Gdx.files.internal("pokemons.json"));
-        for (int i = 0; i < entries.size; i++) {
-            JsonValue entry = entries.get(i);
-            String name = entry.getString("name");
-            String type = entry.getString("type");
-            int tier = entry.getInt("tier");
-            int health = entry.getInt("baseHP");
-            int attack = entry.getInt("baseAttack");
-            int defense = entry.getInt("baseDefense");
-            int speed = entry.getInt("baseSpeed");
-            String evolvesInto = entry.getString("evolvesInto");
-
-            switch (type) {
-                case "fire": {
-                    FirePokemon pokemon = new FirePokemon(name, tier, health, attack, defense, speed, evolvesInto);
-                    this.pokemons.put(pokemon.getName(), pokemon);
-                    this.addAbilities(pokemon);
-                    break;
-                }
-                case "water": {
-                    WaterPokemon pokemon = new WaterPokemon(name, tier, health, attack, defense, speed, evolvesInto);
-                    this.pokemons.put(pokemon.getName(), pokemon);
-                    this.addAbilities(pokemon);
-                    break;
-                }
-                case "grass": {
-                    GrassPokemon pokemon = new GrassPokemon(name, tier, health, attack, defense, speed, evolvesInto);
-                    this.pokemons.put(pokemon.getName(), pokemon);
-                    this.addAbilities(pokemon);
-                    break;
-                }
-                case "electric": {
-                    ElectricPokemon pokemon = new ElectricPokemon(name, tier, health, attack, defense, speed, evolvesInto);
-                    this.pokemons.put(pokemon.getName(), pokemon);
-                    this.addAbilities(pokemon);
-                    break;
-                }
-                case "rock": {
-                    RockPokemon pokemon = new RockPokemon(name, tier, health, attack, defense, speed, evolvesInto);
-                    this.pokemons.put(pokemon.getName(), pokemon);
-                    this.addAbilities(pokemon);
-                    break;
-                }
-                case "poison": {
-                    PoisonPokemon pokemon = new PoisonPokemon(name, tier, health, attack, defense, speed, evolvesInto);
-                    this.pokemons.put(pokemon.getName(), pokemon);
-                    this.addAbilities(pokemon);
-                    break;
-                }
-                case "ice": {
-                    IcePokemon pokemon = new IcePokemon(name, tier, health, attack, defense, speed, evolvesInto);
-                    this.pokemons.put(pokemon.getName(), pokemon);
-                    this.addAbilities(pokemon);
-                    break;
-                }
-                default: {
-                    System.out.println("Unknown type: " + type);
-                    break;
-                }
-            }
-        }
-
-        System.out.println("Loaded " + this.pokemons.size() + " pokemons");
-        this.pokemonNames = this.pokemons.keySet().toArray(new String[0]);
+    /**
+     * Constructs a new Pokedex, loading every species from pokemons.json.
+     *
+     * @param abilityLoader The loader providing the abilities of every type
+     * @param random        The random service; abilities are rolled from its ability stream
+     *                      and random Pokemon are picked from its spawn stream
+     */
+    public Pokedex(AbilityLoader abilityLoader, RandomService random) {
+        this(new SpeciesLoader(abilityLoader), random);
     }
 
-    private List<Ability> getRandomAbilities(String type) {
-        ArrayList<Ability> abilities = new ArrayList<>();
-        for (Ability ability : this.abilityLoader.getAbilities(type)) {
-            if (ability.getType().equals(type)) {
-                abilities.add(ability);
-            }
-        }
+    /**
+     * Constructs a new Pokedex holding the species of a loader.
+     *
+     * @param speciesLoader The loader providing the species
+     * @param random        The random service; abilities are rolled from its ability stream
+     *                      and random Pokemon are picked from its spawn stream
+     */
+    public Pokedex(SpeciesLoader speciesLoader, RandomService random) {
+        this.species = new HashMap<>();
+        this.abilitySets = new LinkedHashMap<>(ABILITY_SET_CACHE_SIZE, 0.75f, true);
+        this.collected = new HashSet<>();
+        this.spawnRandom = random.get(RandomService.Stream.SPAWN);
+        this.abilitySeed = random.get(RandomService.Stream.ABILITY).nextLong();
+        // Held for the lifetime of the Pokedex so every Pokemon resolves its sprite from the shared atlas.
+        AtlasCache.getInstance().acquire(AtlasCache.POKEMON_ATLAS);
 
-        for (Ability ability : this.abilityLoader.getAbilities("normal")) {
-            if (ability.getType().equals("normal")) {
-                abilities.add(ability);
-            }
+        for (Species species : speciesLoader.getSpecies()) {
+            this.species.put(species.name(), species);
         }
-        return abilities;
+
+        System.out.println("Loaded " + this.species.size() + " pokemons");
+        this.pokemonNames = this.species.keySet().toArray(new String[0]);
     }
 
-    private void addAbilities(Pokemon pokemon) {
-        ArrayList<Ability> abilities = (ArrayList<Ability>) this.getRandomAbilities(pokemon.getType());
+    /**
+     * Draws the abilities known by a species: one level 1 ability of its own type and three more abilities
+     * from its pool. An ability that has already been drawn is drawn again, so the four abilities are distinct.
+     *
+     * @param species The species to draw the abilities for
+     * @param random  The random generator used for the draws
+     * @return The drawn ability definitions
+     */
+    public static List<AbilityDefinition> rollAbilities(Species species, RandomGenerator random) {
+        List<AbilityDefinition> pool = species.abilityPool();
+        ArrayList<AbilityDefinition> abilities = new ArrayList<>(NUM_OF_ABILITIES);
         int starterAbilities = 0;
-        while (pokemon.getNumOfAbilities() < NUM_OF_ABILITIES) {
-            Ability ability = abilities.get(MathUtils.random(abilities.size() - 1));
+        while (abilities.size() < NUM_OF_ABILITIES) {
+            AbilityDefinition ability = pool.get(random.nextInt(pool.size()));
+            if (abilities.contains(ability)) {
+                continue;
+            }
             if (starterAbilities < NUM_OF_STARTER_ABILITIES) {
-                if (ability.getLvlReq() == 1 && ability.getType().equals(pokemon.getType())) {
+                if (ability.levelRequirement() == 1 && ability.type() == species.type()) {
                     starterAbilities++;
                 } else {
                     continue;
                 }
             }
-            pokemon.addAbility(ability);
+            abilities.add(ability);
+        }
+        return Collections.unmodifiableList(abilities);
+    }
+
+    /**
+     * Returns the abilities known by a species, rolling them if the species is not in the cache.
+     */
+    private List<AbilityDefinition> getAbilitySet(Species species) {
+        List<AbilityDefinition> abilities = this.abilitySets.get(species.name());
+        if (abilities == null) {
+            abilities = rollAbilities(species, new SplittableRandom(this.abilitySeed ^ species.name().hashCode()));
+            if (this.abilitySets.size() == ABILITY_SET_CACHE_SIZE) {
+                Iterator<String> leastRecentlyUsed = this.abilitySets.keySet().iterator();
+                leastRecentlyUsed.next();
+                leastRecentlyUsed.remove();
+            }
+            this.abilitySets.put(species.name(), abilities);
+            this.abilitySetsRolled++;
+        }
+        return abilities;
+    }
+
+    /**
+     * Creates a new level 1 Pokemon of the given species, knowing the abilities rolled for the species.
+     */
+    private Pokemon createPokemon(Species species) {
+        Pokemon pokemon = new Pokemon(species);
+        for (AbilityDefinition ability : this.getAbilitySet(species)) {
+            pokemon.addAbility(new Ability(ability));
         }
-        System.out.println(pokemon);
+        return pokemon;
     }
 
     public Pokemon getRandomPokemon() {
-        int random = MathUtils.random(this.pokemonNames.length - 1);
-        return this.pokemons.get(this.pokemonNames[random]).copy();
+        return this.createPokemon(this.species.get(this.pokemonNames[this.spawnRandom.nextInt(this.pokemonNames.length)]));
     }
 
     public int getSize() {
-        return this.pokemons.size();
+        return this.species.size();
+    }
+
+    /**
+     * Returns the number of ability sets currently cached.
+     *
+     * @return The number of cached sets, at most the size of the cache
+     */
+    public int getCachedAbilitySets() {
+        return this.abilitySets.size();
+    }
+
+    /**
+     * Returns how many times an ability set was rolled, counting species rolled again after being evicted from the cache.
+     *
+     * @return The number of rolled ability sets
+     */
+    public int getAbilitySetsRolled() {
+        return this.abilitySetsRolled;
     }
 
     public Pokemon getPokemon(String name) {
-        return this.pokemons.get(name).copy();
+        return this.createPokemon(this.species.get(name));
+    }
+
+    public Species getSpecies(String name) {
+        return this.species.get(name);
+    }
+
+    /**
+     * Marks a species as collected by the player.
+     *
+     * @param name The name of the species
+     */
+    public void setCollected(String name) {
+        this.collected.add(name);
+    }
+
+    public boolean isCollected(String name) {
+        return this.collected.contains(name);
+    }
+
+    public Iterable<String> getCollected() {
+        return Collections.unmodifiableSet(this.collected);
+    }
+
+    @Override
+    public Iterator<Species> iterator() {
+        return this.species.values().iterator();
     }
 
+    /**
+     * Releases the reference on the shared Pokemon atlas held by the Pokedex.
+     */
     @Override
-    public Iterator<Pokemon> iterator() {
-        return this.pokemons.values().iterator();
+    public void dispose() {
+        AtlasCache.getInstance().release(AtlasCache.POKEMON_ATLAS);
     }
 }
@@ -2,90 +2,81 @@ package com.mygdx.game.pokemon;
 
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Null;
 import com.mygdx.game.ability.Ability;
+import com.mygdx.game.asset.AtlasCache;
+import com.mygdx.game.battle.Combatant;
 import com.mygdx.game.game.Constants;
 import com.mygdx.game.item.Effect;
 
-import java.util.ArrayList;
-
 /**
- * Pokemon is an abstract class representing a Pokemon in the game.
- * It contains basic properties and behaviors that all Pokemon should have,
+ * Pokemon is a class representing a Pokemon in the game.
+ * It contains basic properties and behaviors that all Pokemon have,
  * such as health, attack, defense, and speed attributes, as well as abilities
  * and status effects. The Pokemon can also gain experience, level up, and evolve.
+ * The type of a Pokemon comes from its species; type effectiveness is looked up in the PokemonType table.
+ * The stats used in battle are kept in a {@link Combatant}, which the Pokemon renders and progresses.
  */
-public abstract class Pokemon extends Actor {
+public class Pokemon extends Actor {
 
     private static final int LVL_EVOLUTION_TO_TIER_2 = 16;
     private static final int LVL_EVOLUTION_TO_TIER_3 = 36;
-    private final String evolvesInto;
-    private final ArrayList<Effect> statusEffects;
-    private final ArrayList<Ability> abilities;
+    // Shared by all Pokemon and only created when the debug overlay is drawn.
+    private static BitmapFont debugFont;
+    private final Species species;
+    private final Combatant combatant;
     private int tier;
-    private int maxHealth;
-    private int defense;
-    private int speed;
-    private TextureAtlas textureAtlas;
-    private int attack;
-    private int health;
-    private boolean fainted;
-    private int level;
+    private TextureRegion sprite;
     private int experience;
     private boolean isCollected;
+    private BoundsListener boundsListener;
+    private Array<ChangeListener> changeListeners;
 
     /**
-     * Full constructor for the Pokemon class.
-     * Initializes a new instance of a Pokemon with specific attributes.
+     * Constructs a new level 1 Pokemon of the given species with the base stats of the species.
      *
-     * @param name        The name of the Pokemon.
-     * @param tier        The evolutionary tier of the Pokemon.
-     * @param level       The current level of the Pokemon.
-     * @param health      The current health of the Pokemon.
-     * @param attack      The current attack power of the Pokemon.
-     * @param defense     The current defense power of the Pokemon.
-     * @param speed       The current speed of the Pokemon.
-     * @param evolvesInto The name of the Pokemon this Pokemon evolves into.
+     * @param species The species of the Pokemon.
      */
-    protected Pokemon(String name, int tier, int level, int health, int attack, int defense, int speed, String evolvesInto) {
+    public Pokemon(Species species) {
+        this(species, species.tier(), new Combatant(species));
+    }
+
+    /**
+     * Full constructor for the Pokemon class, used to restore saved Pokemon.
+     *
+     * @param species   The species of the Pokemon.
+     * @param tier      The evolutionary tier of the Pokemon.
+     * @param combatant The battle stats of the Pokemon.
+     */
+    public Pokemon(Species species, int tier, Combatant combatant) {
+        this.species = species;
         this.tier = tier;
-        this.level = level;
-        this.health = health;
-        this.maxHealth = health;
-        this.attack = attack;
-        this.defense = defense;
-        this.speed = speed;
-        this.evolvesInto = evolvesInto;
-        this.abilities = new ArrayList<>();
-        this.statusEffects = new ArrayList<>();
+        this.combatant = combatant;
         this.experience = 0;
-        this.fainted = false;
         this.isCollected = false;
 
-        this.setName(name);
+        this.setName(species.name());
         this.initSprite();
-    }
-
-    protected Pokemon(String name, int tier, int health, int attack, int defense, int speed, String evolvesInto) {
-        this(name, tier, 1, health, attack, defense, speed, evolvesInto);
+        this.combatant.setChangeListener(changedCombatant -> this.changed());
     }
 
     /**
      * Copy constructor for the Pokemon class.
+     * The species and the ability definitions are shared with the original.
      *
      * @param original The original Pokemon to copy.
      */
-    protected Pokemon(Pokemon original) {
-        this(original.getName(), original.getTier(), original.getLevel(), original.getHealth(), original.getAttack(), original.getDefense(), original.getSpeed(), original.getEvolvesInto());
-        this.textureAtlas = original.textureAtlas;
-        for (Ability ability : original.getAbilities()) {
-            this.abilities.add(ability.copy());
-        }
+    public Pokemon(Pokemon original) {
+        this(original.species, original.tier, new Combatant(original.combatant));
+        this.sprite = original.sprite;
     }
 
-    public abstract String getType();
+    public PokemonType getType() {
+        return this.species.type();
+    }
 
     /**
      * Calculates and returns the effectiveness of this Pokemon against another Pokemon.
@@ -93,39 +84,49 @@ public abstract class Pokemon extends Actor {
      * @param otherPokemon The other Pokemon.
      * @return A double representing the effectiveness of this Pokemon against the other Pokemon.
      */
-
-    public abstract double getEffectiveness(Pokemon otherPokemon);
+    public double getEffectiveness(Pokemon otherPokemon) {
+        return this.species.type().getEffectiveness(otherPokemon.getType());
+    }
 
     /**
      * Creates and returns a copy of this Pokemon.
      *
      * @return A new instance of Pokemon that is a copy of this Pokemon.
      */
-    public abstract Pokemon copy();
+    public Pokemon copy() {
+        return new Pokemon(this);
+    }
+
+    public Species getSpecies() {
+        return this.species;
+    }
+
+    public Combatant getCombatant() {
+        return this.combatant;
+    }
 
     private String getEvolvesInto() {
-        return this.evolvesInto;
+        return this.species.evolvesInto();
     }
 
-    private int getTier() {
+    public int getTier() {
         return this.tier;
     }
 
     /**
      * Initialises the sprite of the Pokemon.
      * This method should be called after the Pokemon has been created.
-     * It sets the sprite of the Pokemon to the corresponding texture in the Atlas.
+     * It sets the sprite of the Pokemon to the corresponding region of the shared Pokemon atlas,
+     * which must have been acquired from the AtlasCache beforehand.
      * If the texture is not found, an error message is printed.
-     * This method automatically sets the texture for all potential subclasses of Pokemon.
      */
     public void initSprite() {
-        this.textureAtlas = new TextureAtlas("Atlas/Pokemons.atlas");
-        if (this.textureAtlas.findRegion(this.getName()) == null) {
+        this.sprite = AtlasCache.getInstance().findRegion(AtlasCache.POKEMON_ATLAS, this.getName());
+        if (this.sprite == null) {
             System.out.println("Texture for " + this.getName() + " not found!");
         } else {
-            TextureRegion textureRegion = this.textureAtlas.findRegion(this.getName());
-            this.setWidth(textureRegion.getRegionWidth());
-            this.setHeight(textureRegion.getRegionHeight());
+            this.setWidth(this.sprite.getRegionWidth());
+            this.setHeight(this.sprite.getRegionHeight());
             this.setOrigin(this.getX() + this.getWidth() / 2f, this.getY() + this.getHeight() / 2f);
         }
     }
@@ -140,49 +141,52 @@ public abstract class Pokemon extends Actor {
         this.experience += exp;
         if (this.experience >= 100) {
             this.levelUp();
+        } else {
+            this.changed();
         }
     }
 
+    public int getExperience() {
+        return this.experience;
+    }
+
+    public void setExperience(int experience) {
+        this.experience = experience;
+        this.changed();
+    }
+
     /**
      * Causes the Pokemon to level up, increasing its stats and potentially causing it to evolve.
      */
     public void levelUp() {
-        this.level++;
-        if (this.level >= LVL_EVOLUTION_TO_TIER_2 && this.tier == 1 && this.evolvesInto != null) {
+        this.combatant.levelUp();
+        int level = this.combatant.getLevel();
+        if (level >= LVL_EVOLUTION_TO_TIER_2 && this.tier == 1 && this.getEvolvesInto() != null) {
             this.evolve();
         }
-        if (this.level >= LVL_EVOLUTION_TO_TIER_3 && this.tier == 2 && this.evolvesInto != null) {
+        if (level >= LVL_EVOLUTION_TO_TIER_3 && this.tier == 2 && this.getEvolvesInto() != null) {
             this.evolve();
         }
-
-        for (Ability ability : this.abilities) {
-            if (this.getLevel() >= ability.getLvlReq()) {
-                ability.unlock();
-            }
-        }
-
         this.experience = 0;
-        this.setMaxHealth((int) (this.getMaxHealth() + 1 / 50f * this.getMaxHealth()));
-        this.attack += 1 / 50f * this.attack;
-        this.defense += 1 / 50f * this.defense;
-        this.speed += 1 / 50f * this.speed;
+        this.changed();
     }
 
     public int getLevel() {
-        return this.level;
+        return this.combatant.getLevel();
     }
 
 
     public void evolve() {
         this.tier++;
+        this.changed();
     }
 
     public void addAbility(Ability ability) {
-        if (!this.abilities.contains(ability)) {
+        if (!this.combatant.hasAbility(ability)) {
             if (this.getLevel() >= ability.getLvlReq()) {
                 ability.unlock();
             }
-            this.abilities.add(ability);
+            this.combatant.addAbility(ability);
         }
     }
 
@@ -193,23 +197,19 @@ public abstract class Pokemon extends Actor {
      * @param hp The amount of health to increase by.
      */
     public void increaseHP(int hp) {
-        if (this.health + hp <= this.maxHealth) {
-            this.health += hp;
-        } else {
-            this.health = this.maxHealth;
-        }
+        this.combatant.increaseHP(hp);
     }
 
     public void increaseATT(int attack) {
-        this.attack += attack;
+        this.combatant.increaseATT(attack);
     }
 
     public void increaseDEF(int defense) {
-        this.defense += defense;
+        this.combatant.increaseDEF(defense);
     }
 
     public void increaseSPD(int speed) {
-        this.speed += speed;
+        this.combatant.increaseSPD(speed);
     }
 
     /**
@@ -221,69 +221,63 @@ public abstract class Pokemon extends Actor {
      */
 
     public void decreaseHP(int hp) {
-        this.health -= hp;
-        if (this.health <= 0) {
-            this.fainted = true;
-            this.health = 0;
-        }
+        this.combatant.decreaseHP(hp);
     }
 
-    //TODO implement
     public void decreaseATT(int attack) {
-        this.attack -= attack;
+        this.combatant.decreaseATT(attack);
     }
 
     public void decreaseDEF(int defense) {
-        this.defense -= defense;
+        this.combatant.decreaseDEF(defense);
     }
 
     public void decreaseSPD(int speed) {
-        this.speed -= speed;
+        this.combatant.decreaseSPD(speed);
     }
 
     public int getAttack() {
-        return this.attack;
+        return this.combatant.getAttack();
     }
 
     public void setAttack(int attack) {
-        this.attack = attack;
+        this.combatant.setAttack(attack);
     }
 
     public int getHealth() {
-        return this.health;
+        return this.combatant.getHealth();
     }
 
     public int getMaxHealth() {
-        return this.maxHealth;
+        return this.combatant.getMaxHealth();
     }
 
     public void setMaxHealth(int health) {
-        this.maxHealth = health;
-        this.health = health;
+        this.combatant.setMaxHealth(health);
     }
 
     public boolean hasFainted() {
-        return this.fainted;
+        return this.combatant.hasFainted();
     }
 
     public void setFainted(boolean fainted) {
-        this.fainted = fainted;
+        this.combatant.setFainted(fainted);
     }
 
     public int getDefense() {
-        return this.defense;
+        return this.combatant.getDefense();
     }
 
     public void setDefense(int defense) {
-        this.defense = defense;
+        this.combatant.setDefense(defense);
     }
 
     public int getSpeed() {
-        return this.speed;
+        return this.combatant.getSpeed();
     }
 
     public void setSpeed(int speed) {
-        this.speed = speed;
+        this.combatant.setSpeed(speed);
     }
 
     /**
@@ -291,35 +285,35 @@ public abstract class Pokemon extends Actor {
      */
     public int getPowerPoints() {
         int powerPoints = 0;
-        powerPoints += 1 / 5f * this.health;
-        powerPoints += 1 / 5f * this.attack;
-        powerPoints += 1 / 5f * this.defense;
-        powerPoints += 1 / 5f * this.speed;
-        powerPoints += this.level;
+        powerPoints += 1 / 5f * this.getHealth();
+        powerPoints += 1 / 5f * this.getAttack();
+        powerPoints += 1 / 5f * this.getDefense();
+        powerPoints += 1 / 5f * this.getSpeed();
+        powerPoints += this.getLevel();
         return powerPoints;
     }
 
-    public Iterable<Effect> getStatusEffects() {
-        return this.statusEffects;
+    public boolean hasStatusEffect(Effect effect) {
+        return this.combatant.hasStatusEffect(effect);
     }
 
-    public void addStatusEffect(Effect effect) {
-        this.statusEffects.add(effect);
+    public void addStatusEffect(Effect effect, int turns, int magnitude) {
+        this.combatant.addStatusEffect(effect, turns, magnitude);
     }
 
     public Ability getAbility(int index) {
-        return this.abilities.get(index);
+        return this.combatant.getAbility(index);
     }
 
     public Iterable<Ability> getAbilities() {
-        return this.abilities;
+        return this.combatant.getAbilities();
     }
 
     /**
      * Heals the Pokemon to full health
      */
     public void heal() {
-        this.health = this.maxHealth;
+        this.combatant.heal();
     }
 
     /**
@@ -329,11 +323,11 @@ public abstract class Pokemon extends Actor {
      */
     public int[] getStats() {
         int[] stats = new int[5];
-        stats[0] = this.level;
-        stats[1] = this.health;
-        stats[2] = this.attack;
-        stats[3] = this.defense;
-        stats[4] = this.speed;
+        stats[0] = this.getLevel();
+        stats[1] = this.getHealth();
+        stats[2] = this.getAttack();
+        stats[3] = this.getDefense();
+        stats[4] = this.getSpeed();
         return stats;
     }
 
@@ -363,10 +357,61 @@ public abstract class Pokemon extends Actor {
 
     public void setCollected(boolean collected) {
         this.isCollected = collected;
+        this.changed();
     }
 
     public int getNumOfAbilities() {
-        return this.abilities.size();
+        return this.combatant.getNumOfAbilities();
+    }
+
+    /**
+     * Sets the listener that is notified whenever the position or size of this Pokemon changes.
+     *
+     * @param boundsListener The listener, or null to remove the current listener
+     */
+    public void setBoundsListener(@Null BoundsListener boundsListener) {
+        this.boundsListener = boundsListener;
+    }
+
+    /**
+     * Adds a listener that is notified whenever the level, experience, stats, abilities, status effects,
+     * tier or collected flag of this Pokemon change.
+     *
+     * @param changeListener The listener to add
+     */
+    public void addChangeListener(ChangeListener changeListener) {
+        if (this.changeListeners == null) {
+            this.changeListeners = new Array<>(false, 2);
+        }
+        this.changeListeners.add(changeListener);
+    }
+
+    public void removeChangeListener(ChangeListener changeListener) {
+        if (this.changeListeners != null) {
+            this.changeListeners.removeValue(changeListener, true);
+        }
+    }
+
+    private void changed() {
+        if (this.changeListeners != null) {
+            for (int i = 0; i < this.changeListeners.size; i++) {
+                this.changeListeners.get(i).pokemonChanged(this);
+            }
+        }
+    }
+
+    @Override
+    protected void positionChanged() {
+        if (this.boundsListener != null) {
+            this.boundsListener.boundsChanged(this);
+        }
+    }
+
+    @Override
+    protected void sizeChanged() {
+        if (this.boundsListener != null) {
+            this.boundsListener.boundsChanged(this);
+        }
     }
 
     /**
@@ -378,11 +423,13 @@ public abstract class Pokemon extends Actor {
      */
     @Override
     public void draw(Batch batch, float parentAlpha) {
-        batch.draw(this.textureAtlas.findRegion(this.getName()), this.getX(), this.getY(), this.getOriginX(), this.getOriginY(), this.getWidth(), this.getHeight(), this.getScaleX(), this.getScaleY(), this.getRotation());
+        batch.draw(this.sprite, this.getX(), this.getY(), this.getOriginX(), this.getOriginY(), this.getWidth(), this.getHeight(), this.getScaleX(), this.getScaleY(), this.getRotation());
 
         if (Constants.DEBUG) {
-            BitmapFont font = new BitmapFont();
-            font.draw(batch, this.toString(), this.getX() - this.getWidth() - 100, this.getY());
+            if (debugFont == null) {
+                debugFont = new BitmapFont();
+            }
+            debugFont.draw(batch, this.toString(), this.getX() - this.getWidth() - 100, this.getY());
         }
     }
 
@@ -399,9 +446,9 @@ public abstract class Pokemon extends Actor {
                 .append(" PP: ").append(this.getPowerPoints()).append(System.lineSeparator())
                 .append("FAINTED: ").append(this.hasFainted())
                 .append(" COLLECTED: ").append(this.isCollected)
-                .append(" ABILITIES: ").append(this.getAbilities().spliterator().getExactSizeIfKnown())
-                .append(" STATUS EFFECTS: ").append(this.getStatusEffects().spliterator().getExactSizeIfKnown())
-                .append(" EVOLVES INTO: ").append(this.evolvesInto)
+                .append(" ABILITIES: ").append(this.getNumOfAbilities())
+                .append(" STATUS EFFECTS: ").append(this.combatant.getNumOfStatusEffects())
+                .append(" EVOLVES INTO: ").append(this.getEvolvesInto())
                 .append(" TIER: ").append(this.tier)
                 .append(System.lineSeparator());
 
@@ -409,10 +456,37 @@ public abstract class Pokemon extends Actor {
             sb.append(ability).append(System.lineSeparator());
         }
 
-        for (Effect statusEffect : this.getStatusEffects()) {
-            sb.append(statusEffect).append(System.lineSeparator());
+        for (Effect statusEffect : Effect.values()) {
+            if (this.hasStatusEffect(statusEffect)) {
+                sb.append(statusEffect).append(" turns left: ").append(this.combatant.getStatusEffects().getTurnsLeft(statusEffect))
+                        .append(System.lineSeparator());
+            }
         }
 
         return sb.toString();
     }
+
+    /**
+     * Listener notified when a Pokemon is moved or resized, used to keep hitboxes up to date.
+     */
+    public interface BoundsListener {
+        /**
+         * Called after the position or size of the Pokemon has changed.
+         *
+         * @param pokemon The Pokemon that changed
+         */
+        void boundsChanged(Pokemon pokemon);
+    }
+
+    /**
+     * Listener notified when the state of a Pokemon changes, used to refresh the labels showing it.
+     */
+    public interface ChangeListener {
+        /**
+         * Called after the state of the Pokemon has changed.
+         *
+         * @param pokemon The Pokemon that changed
+         */
+        void pokemonChanged(Pokemon pokemon);
+    }
 }
@@ -0,0 +1,94 @@
+package com.mygdx.game.pokemon;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.util.Arrays;
+
+/**
+ * The types of Pokemon and abilities.
+ * The effectiveness of every type against every other type is kept in a dense table
+ * indexed by the ordinals of the types, loaded from types.json.
+ * Pairs that are missing from the file have a neutral effectiveness of 1.
+ */
+public enum PokemonType {
+    NORMAL("normal"),
+    FIRE("fire"),
+    WATER("water"),
+    GRASS("grass"),
+    ELECTRIC("electric"),
+    ROCK("rock"),
+    POISON("poison"),
+    ICE("ice");
+
+    private static final PokemonType[] VALUES = values();
+    // Written by the startup worker thread and read by the render thread.
+    private static volatile double[][] effectiveness;
+    private final String name;
+
+    PokemonType(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the type with the given name, as used in the JSON files.
+     *
+     * @param name The name of the type
+     * @return The PokemonType
+     * @throws IllegalArgumentException if there is no type with the given name
+     */
+    public static PokemonType fromName(String name) {
+        for (PokemonType type : VALUES) {
+            if (type.name.equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown type: " + name);
+    }
+
+    /**
+     * Loads the effectiveness table from a JSON file. The file contains an object per attacking type,
+     * mapping defending types to their effectiveness multiplier.
+     *
+     * @param file The JSON file to load
+     */
+    public static synchronized void loadEffectiveness(FileHandle file) {
+        double[][] table = new double[VALUES.length][VALUES.length];
+        for (double[] row : table) {
+            Arrays.fill(row, 1);
+        }
+
+        JsonValue attackers = new JsonReader().parse(file);
+        for (JsonValue attacker = attackers.child; attacker != null; attacker = attacker.next) {
+            int row = fromName(attacker.name).ordinal();
+            for (JsonValue defender = attacker.child; defender != null; defender = defender.next) {
+                table[row][fromName(defender.name).ordinal()] = defender.asDouble();
+            }
+        }
+        effectiveness = table;
+    }
+
+    private static double[][] getTable() {
+        if (effectiveness == null) {
+            loadEffectiveness(Gdx.files.internal("types.json"));
+        }
+        return effectiveness;
+    }
+
+    /**
+     * Returns the effectiveness of an attack of this type against a Pokemon of the given type.
+     * In decimal form 2 if effective 1 if neutral 0.5 if not very effective.
+     *
+     * @param defender The type of the defending Pokemon
+     * @return The effectiveness multiplier
+     */
+    public double getEffectiveness(PokemonType defender) {
+        return getTable()[this.ordinal()][defender.ordinal()];
+    }
+
+    public String getName() {
+        return this.name;
+    }
+}
@@ -0,0 +1,23 @@
+package com.mygdx.game.pokemon;
+
+import com.mygdx.game.ability.AbilityDefinition;
+
+import java.util.List;
+
+/**
+ * Immutable data of a Pokemon species as loaded from pokemons.json.
+ * A species is shared by every Pokemon of that kind; the live Pokemon only hold their own mutable stats.
+ *
+ * @param name        the name of the species
+ * @param type        the type of the species
+ * @param tier        the evolutionary tier of the species
+ * @param baseHealth  the health of a level 1 Pokemon of this species
+ * @param baseAttack  the attack of a level 1 Pokemon of this species
+ * @param baseDefense the defense of a level 1 Pokemon of this species
+ * @param baseSpeed   the speed of a level 1 Pokemon of this species
+ * @param evolvesInto the name of the species this species evolves into, or null
+ * @param abilityPool the abilities a Pokemon of this species can learn
+ */
+public record Species(String name, PokemonType type, int tier, int baseHealth, int baseAttack, int baseDefense,
+                      int baseSpeed, String evolvesInto, List<AbilityDefinition> abilityPool) {
+}
@@ -0,0 +1,115 @@
+package com.mygdx.game.pokemon;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.mygdx.game.ability.AbilityDefinition;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.asset.DataBundle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Class that loads the species from a JSON file or from a compiled {@link DataBundle}.
+ * Every species gets the pool of abilities it can learn: the abilities of its own type together with the normal abilities.
+ * Species are kept in the order of the file.
+ */
+public class SpeciesLoader {
+    private final LinkedHashMap<String, Species> species;
+    private final EnumMap<PokemonType, List<AbilityDefinition>> abilityPools;
+    private final AbilityLoader abilityLoader;
+
+    /**
+     * Constructor which loads all species from pokemons.json.
+     *
+     * @param abilityLoader The loader providing the abilities of every type
+     */
+    public SpeciesLoader(AbilityLoader abilityLoader) {
+        this(Gdx.files.internal("pokemons.json"), abilityLoader);
+    }
+
+    /**
+     * Constructor which loads all species from a specific JSON file. Species with an unknown type are skipped.
+     * Does not need a running libGDX application when given a file handle created from a java.io.File.
+     *
+     * @param file          The JSON file to load the species from
+     * @param abilityLoader The loader providing the abilities of every type
+     */
+    public SpeciesLoader(FileHandle file, AbilityLoader abilityLoader) {
+        this.species = new LinkedHashMap<>();
+        this.abilityPools = new EnumMap<>(PokemonType.class);
+        this.abilityLoader = abilityLoader;
+
+        JsonReader json = new JsonReader();
+        JsonValue entries = json.parse(file);
+        for (int i = 0; i < entries.size; i++) {
+            JsonValue entry = entries.get(i);
+            String name = entry.getString("name");
+            PokemonType type;
+            try {
+                type = PokemonType.fromName(entry.getString("type"));
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+                continue;
+            }
+
+            this.species.put(name, new Species(name, type, entry.getInt("tier"), entry.getInt("baseHP"), entry.getInt("baseAttack"),
+                    entry.getInt("baseDefense"), entry.getInt("baseSpeed"), entry.getString("evolvesInto"), this.getAbilityPool(type)));
+        }
+    }
+
+    /**
+     * Constructor which loads all species of a data bundle.
+     *
+     * @param bundle        The loaded data bundle
+     * @param abilityLoader The loader providing the abilities of every type
+     */
+    public SpeciesLoader(DataBundle bundle, AbilityLoader abilityLoader) {
+        this.species = new LinkedHashMap<>();
+        this.abilityPools = new EnumMap<>(PokemonType.class);
+        this.abilityLoader = abilityLoader;
+        for (DataBundle.SpeciesEntry entry : bundle.getSpecies()) {
+            this.species.put(entry.name(), new Species(entry.name(), entry.type(), entry.tier(), entry.baseHealth(), entry.baseAttack(),
+                    entry.baseDefense(), entry.baseSpeed(), entry.evolvesInto(), this.getAbilityPool(entry.type())));
+        }
+    }
+
+    /**
+     * Returns the abilities of the given type together with the normal abilities.
+     * The pool is built once per type and shared by all species of that type.
+     */
+    private List<AbilityDefinition> getAbilityPool(PokemonType type) {
+        List<AbilityDefinition> pool = this.abilityPools.get(type);
+        if (pool == null) {
+            ArrayList<AbilityDefinition> abilities = new ArrayList<>();
+            for (AbilityDefinition ability : this.abilityLoader.getAbilities(type)) {
+                if (ability.type() == type) {
+                    abilities.add(ability);
+                }
+            }
+
+            for (AbilityDefinition ability : this.abilityLoader.getAbilities(PokemonType.NORMAL)) {
+                if (ability.type() == PokemonType.NORMAL) {
+                    abilities.add(ability);
+                }
+            }
+            pool = Collections.unmodifiableList(abilities);
+            this.abilityPools.put(type, pool);
+        }
+        return pool;
+    }
+
+    public Collection<Species> getSpecies() {
+        return Collections.unmodifiableCollection(this.species.values());
+    }
+
+    public int getSize() {
+        return this.species.size();
+    }
+}
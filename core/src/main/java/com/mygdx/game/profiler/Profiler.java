@@ -0,0 +1,304 @@
+package com.mygdx.game.profiler;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * Measures how long the subsystems of the game take every frame, together with the garbage collections
+ * and the memory allocated by the render thread.
+ * <p>
+ * Code to measure is wrapped in {@link #begin(Section)} and {@link #end(Section)}, and every frame in
+ * {@link #beginFrame()} and {@link #endFrame()}. Measuring only reads the clock and writes into preallocated arrays,
+ * so the profiler is always on. For every section the duration of the last frame, a moving average and the maximum
+ * of the last second are kept for the {@link ProfilerOverlay}.
+ * <p>
+ * The last {@value #TRACE_CAPACITY} measured sections and {@value #FRAME_CAPACITY} frames are kept in ring buffers and
+ * can be exported in the Chrome trace event format, which can be opened in chrome://tracing or ui.perfetto.dev,
+ * to find out which subsystem caused a slow frame.
+ */
+public class Profiler {
+    private static final int TRACE_CAPACITY = 1 << 16;
+    private static final int FRAME_CAPACITY = 1 << 12;
+    private static final float AVERAGE_WEIGHT = 0.05f;
+    private static final long MAX_WINDOW_NANOS = 1_000_000_000L;
+    private final long startTime;
+    private final long[] sectionStarts;
+    private final float[] lastMillis;
+    private final float[] averageMillis;
+    private final float[] maxMillis;
+    private final float[] windowMaxMillis;
+    private final int[] traceSections;
+    private final long[] traceStarts;
+    private final long[] traceDurations;
+    private final long[] frameStarts;
+    private final long[] frameDurations;
+    private final long[] frameAllocations;
+    private final long[] frameCollections;
+    private final long[] frameCollectionMillis;
+    private final List<GarbageCollectorMXBean> garbageCollectors;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private long traceCount;
+    private long frameCount;
+    private long frameStart;
+    private long windowStart;
+    private long allocatedAtFrameStart;
+    private long lastCollections;
+    private long lastCollectionMillis;
+    private float frameMillis;
+    private float averageFrameMillis;
+    private float maxFrameMillis;
+    private float windowMaxFrameMillis;
+    private float allocationRate;
+    private long totalCollections;
+    private long totalCollectionMillis;
+
+    /**
+     * Constructs a new Profiler. Allocations are only measured on JVMs that can count the bytes allocated by a thread.
+     */
+    public Profiler() {
+        int sections = Section.values().length;
+        this.startTime = System.nanoTime();
+        this.sectionStarts = new long[sections];
+        this.lastMillis = new float[sections];
+        this.averageMillis = new float[sections];
+        this.maxMillis = new float[sections];
+        this.windowMaxMillis = new float[sections];
+        this.traceSections = new int[TRACE_CAPACITY];
+        this.traceStarts = new long[TRACE_CAPACITY];
+        this.traceDurations = new long[TRACE_CAPACITY];
+        this.frameStarts = new long[FRAME_CAPACITY];
+        this.frameDurations = new long[FRAME_CAPACITY];
+        this.frameAllocations = new long[FRAME_CAPACITY];
+        this.frameCollections = new long[FRAME_CAPACITY];
+        this.frameCollectionMillis = new long[FRAME_CAPACITY];
+        this.garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+            this.threadBean = (com.sun.management.ThreadMXBean) threadBean;
+            this.threadBean.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            this.threadBean = null;
+        }
+        this.windowStart = this.startTime;
+        this.lastCollections = this.countCollections();
+        this.lastCollectionMillis = this.countCollectionMillis();
+    }
+
+    /**
+     * Starts measuring a frame. Must be called on the render thread.
+     */
+    public void beginFrame() {
+        this.frameStart = System.nanoTime();
+        for (int i = 0; i < this.lastMillis.length; i++) {
+            this.lastMillis[i] = 0;
+        }
+        this.allocatedAtFrameStart = this.getAllocatedBytes();
+    }
+
+    /**
+     * Stops measuring a frame and updates the statistics of the frame and of every section.
+     */
+    public void endFrame() {
+        long now = System.nanoTime();
+        long duration = now - this.frameStart;
+        long allocated = this.getAllocatedBytes() - this.allocatedAtFrameStart;
+        long collections = this.countCollections();
+        long collectionMillis = this.countCollectionMillis();
+
+        int frame = (int) (this.frameCount++ % FRAME_CAPACITY);
+        this.frameStarts[frame] = this.frameStart;
+        this.frameDurations[frame] = duration;
+        this.frameAllocations[frame] = allocated;
+        this.frameCollections[frame] = collections - this.lastCollections;
+        this.frameCollectionMillis[frame] = collectionMillis - this.lastCollectionMillis;
+        this.totalCollections += collections - this.lastCollections;
+        this.totalCollectionMillis += collectionMillis - this.lastCollectionMillis;
+        this.lastCollections = collections;
+        this.lastCollectionMillis = collectionMillis;
+
+        this.frameMillis = duration / 1_000_000f;
+        this.averageFrameMillis += (this.frameMillis - this.averageFrameMillis) * AVERAGE_WEIGHT;
+        this.windowMaxFrameMillis = Math.max(this.windowMaxFrameMillis, this.frameMillis);
+        float allocationRate = duration == 0 ? 0 : allocated * 1_000_000_000f / duration;
+        this.allocationRate += (allocationRate - this.allocationRate) * AVERAGE_WEIGHT;
+        for (int i = 0; i < this.lastMillis.length; i++) {
+            this.averageMillis[i] += (this.lastMillis[i] - this.averageMillis[i]) * AVERAGE_WEIGHT;
+            this.windowMaxMillis[i] = Math.max(this.windowMaxMillis[i], this.lastMillis[i]);
+        }
+
+        if (now - this.windowStart >= MAX_WINDOW_NANOS) {
+            this.windowStart = now;
+            this.maxFrameMillis = this.windowMaxFrameMillis;
+            this.windowMaxFrameMillis = 0;
+            System.arraycopy(this.windowMaxMillis, 0, this.maxMillis, 0, this.maxMillis.length);
+            for (int i = 0; i < this.windowMaxMillis.length; i++) {
+                this.windowMaxMillis[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Starts measuring a section of the frame.
+     *
+     * @param section The section
+     */
+    public void begin(Section section) {
+        this.sectionStarts[section.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * Stops measuring a section of the frame. A section measured more than once in a frame adds up.
+     *
+     * @param section The section
+     */
+    public void end(Section section) {
+        long start = this.sectionStarts[section.ordinal()];
+        long duration = System.nanoTime() - start;
+        this.lastMillis[section.ordinal()] += duration / 1_000_000f;
+
+        int event = (int) (this.traceCount++ % TRACE_CAPACITY);
+        this.traceSections[event] = section.ordinal();
+        this.traceStarts[event] = start;
+        this.traceDurations[event] = duration;
+    }
+
+    private long getAllocatedBytes() {
+        return this.threadBean == null ? 0 : this.threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private long countCollections() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : this.garbageCollectors) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private long countCollectionMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : this.garbageCollectors) {
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return time;
+    }
+
+    /**
+     * Writes the recorded sections and frames as a Chrome trace. Every frame and section is a complete event
+     * on the render thread; the bytes allocated per frame are a counter and garbage collections are instant events.
+     *
+     * @param file The file to write
+     * @throws IOException If the file could not be written
+     */
+    public void exportTrace(File file) throws IOException {
+        try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\"render\"}}");
+
+            long firstFrame = Math.max(0, this.frameCount - FRAME_CAPACITY);
+            for (long i = firstFrame; i < this.frameCount; i++) {
+                int frame = (int) (i % FRAME_CAPACITY);
+                this.writeCompleteEvent(writer, "Frame", "frame", this.frameStarts[frame], this.frameDurations[frame]);
+                writer.write(",\n{\"name\":\"Allocated\",\"ph\":\"C\",\"pid\":1,\"ts\":" + this.toMicros(this.frameStarts[frame])
+                        + ",\"args\":{\"KB\":" + this.frameAllocations[frame] / 1024 + "}}");
+                if (this.frameCollections[frame] > 0) {
+                    writer.write(",\n{\"name\":\"GC\",\"cat\":\"gc\",\"ph\":\"i\",\"s\":\"p\",\"pid\":1,\"tid\":1,\"ts\":"
+                            + this.toMicros(this.frameStarts[frame] + this.frameDurations[frame]) + ",\"args\":{\"collections\":"
+                            + this.frameCollections[frame] + ",\"ms\":" + this.frameCollectionMillis[frame] + "}}");
+                }
+            }
+
+            long firstEvent = Math.max(0, this.traceCount - TRACE_CAPACITY);
+            for (long i = firstEvent; i < this.traceCount; i++) {
+                int event = (int) (i % TRACE_CAPACITY);
+                this.writeCompleteEvent(writer, Section.values()[this.traceSections[event]].name(), "section", this.traceStarts[event], this.traceDurations[event]);
+            }
+            writer.write("\n]}\n");
+        }
+    }
+
+    private void writeCompleteEvent(Writer writer, String name, String category, long start, long duration) throws IOException {
+        writer.write(",\n{\"name\":\"" + name + "\",\"cat\":\"" + category + "\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":"
+                + this.toMicros(start) + ",\"dur\":" + duration / 1000f + "}");
+    }
+
+    private float toMicros(long time) {
+        return (time - this.startTime) / 1000f;
+    }
+
+    public float getLastMillis(Section section) {
+        return this.lastMillis[section.ordinal()];
+    }
+
+    public float getAverageMillis(Section section) {
+        return this.averageMillis[section.ordinal()];
+    }
+
+    /**
+     * Returns the longest time a section took in a frame during the last full second.
+     *
+     * @param section The section
+     * @return The maximum in milliseconds
+     */
+    public float getMaxMillis(Section section) {
+        return this.maxMillis[section.ordinal()];
+    }
+
+    public float getFrameMillis() {
+        return this.frameMillis;
+    }
+
+    public float getAverageFrameMillis() {
+        return this.averageFrameMillis;
+    }
+
+    /**
+     * Returns the longest frame of the last full second.
+     *
+     * @return The maximum frame time in milliseconds
+     */
+    public float getMaxFrameMillis() {
+        return this.maxFrameMillis;
+    }
+
+    /**
+     * Returns the average number of bytes the render thread allocates per second.
+     *
+     * @return The allocation rate, 0 if the JVM cannot measure it
+     */
+    public float getAllocationRate() {
+        return this.allocationRate;
+    }
+
+    public long getTotalCollections() {
+        return this.totalCollections;
+    }
+
+    public long getTotalCollectionMillis() {
+        return this.totalCollectionMillis;
+    }
+
+    /**
+     * The measured sections of a frame.
+     */
+    public enum Section {
+        STREAMING,
+        INPUT,
+        COLLISION,
+        PLAYER,
+        MAP,
+        ENTITIES,
+        HUD,
+        PAUSE_MENU,
+        BATTLE_UPDATE,
+        BATTLE_POKEMON,
+        BATTLE_UI,
+        BATTLE_END
+    }
+}
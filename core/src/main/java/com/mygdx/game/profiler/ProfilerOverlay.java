@@ -0,0 +1,94 @@
+package com.mygdx.game.profiler;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Draws the statistics of a {@link Profiler} in the top right corner of the screen, over everything else.
+ * The text is rebuilt twice per second into the same StringBuilder, so showing the overlay hardly changes what it measures.
+ */
+public class ProfilerOverlay implements Disposable {
+    private static final float REFRESH_SECONDS = 0.5f;
+    private static final float MARGIN = 10;
+    private static final float WIDTH = 330;
+    private final Profiler profiler;
+    private final SpriteBatch batch;
+    private final BitmapFont font;
+    private final StringBuilder text;
+    private float sinceRefresh;
+    private boolean visible;
+
+    /**
+     * Constructs a new hidden ProfilerOverlay.
+     *
+     * @param profiler The profiler to show
+     */
+    public ProfilerOverlay(Profiler profiler) {
+        this.profiler = profiler;
+        this.batch = new SpriteBatch();
+        this.font = new BitmapFont();
+        this.text = new StringBuilder();
+        this.sinceRefresh = REFRESH_SECONDS;
+    }
+
+    public boolean isVisible() {
+        return this.visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    /**
+     * Draws the overlay if it is visible.
+     *
+     * @param delta The time in seconds since the last frame
+     */
+    public void draw(float delta) {
+        if (!this.visible) {
+            return;
+        }
+        this.sinceRefresh += delta;
+        if (this.sinceRefresh >= REFRESH_SECONDS) {
+            this.sinceRefresh = 0;
+            this.refresh();
+        }
+
+        int width = Gdx.graphics.getBackBufferWidth();
+        int height = Gdx.graphics.getBackBufferHeight();
+        Gdx.gl.glViewport(0, 0, width, height);
+        this.batch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+        this.batch.begin();
+        this.font.draw(this.batch, this.text, width - WIDTH - MARGIN, height - MARGIN);
+        this.batch.end();
+    }
+
+    private void refresh() {
+        this.text.setLength(0);
+        this.text.append("FPS ").append(Gdx.graphics.getFramesPerSecond())
+                .append("  frame ").append(round(this.profiler.getAverageFrameMillis()))
+                .append(" ms, max ").append(round(this.profiler.getMaxFrameMillis())).append(" ms\n");
+        this.text.append("alloc ").append(Math.round(this.profiler.getAllocationRate() / 1024)).append(" KB/s")
+                .append("  GC ").append(this.profiler.getTotalCollections())
+                .append(" (").append(this.profiler.getTotalCollectionMillis()).append(" ms)\n");
+        for (Profiler.Section section : Profiler.Section.values()) {
+            if (this.profiler.getMaxMillis(section) == 0 && this.profiler.getAverageMillis(section) < 0.001f) {
+                continue;
+            }
+            this.text.append(section.name()).append("  ").append(round(this.profiler.getAverageMillis(section)))
+                    .append(" ms, max ").append(round(this.profiler.getMaxMillis(section))).append(" ms\n");
+        }
+    }
+
+    private static float round(float millis) {
+        return Math.round(millis * 100) / 100f;
+    }
+
+    @Override
+    public void dispose() {
+        this.batch.dispose();
+        this.font.dispose();
+    }
+}
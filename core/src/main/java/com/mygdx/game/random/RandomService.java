@@ -0,0 +1,72 @@
+package com.mygdx.game.random;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.util.EnumMap;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Source of all randomness in the game.
+ * Every subsystem draws from its own stream, and all streams are derived from one master seed.
+ * Because the streams are independent, a subsystem drawing more or fewer numbers does not change what the others draw,
+ * so a seed replays the same spawns, ability sets, battles and catches.
+ * The streams are not thread safe and belong to the render thread; code running on other threads
+ * should split its own generator with {@link #split(Stream)}.
+ */
+public final class RandomService {
+    private final long seed;
+    private final EnumMap<Stream, RandomXS128> streams;
+    private final EnumMap<Stream, SplittableRandom> splitters;
+
+    /**
+     * Constructs a new RandomService.
+     *
+     * @param seed The master seed every stream is derived from
+     */
+    public RandomService(long seed) {
+        this.seed = seed;
+        this.streams = new EnumMap<>(Stream.class);
+        this.splitters = new EnumMap<>(Stream.class);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (Stream stream : Stream.values()) {
+            this.streams.put(stream, new RandomXS128(seeds.nextLong()));
+            this.splitters.put(stream, seeds.split());
+        }
+    }
+
+    /**
+     * Returns the generator of a stream. The same instance is returned on every call.
+     *
+     * @param stream The stream
+     * @return The generator of the stream
+     */
+    public RandomGenerator get(Stream stream) {
+        return this.streams.get(stream);
+    }
+
+    /**
+     * Creates a new generator for use on another thread, derived from the seed of a stream.
+     * Every call returns a different generator; the sequence of generators only depends on the master seed.
+     *
+     * @param stream The stream to derive the generator from
+     * @return A new generator owned by the caller
+     */
+    public SplittableRandom split(Stream stream) {
+        return this.splitters.get(stream).split();
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * The subsystems drawing random numbers, each one with its own stream.
+     */
+    public enum Stream {
+        SPAWN,
+        BATTLE,
+        CATCH,
+        ABILITY
+    }
+}
@@ -0,0 +1,92 @@
+package com.mygdx.game.save;
+
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.character.Player;
+import com.mygdx.game.item.Item;
+import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.pokemon.Pokemon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable copy of the state that is saved: the player, their party and inventory and the collected flags of the Pokedex.
+ * Taking a snapshot only copies a few numbers per Pokemon; items are immutable and are shared with the inventory.
+ * A snapshot can therefore be taken on the render thread and written on another thread while the game goes on.
+ *
+ * @param playerName        The name of the player
+ * @param zoneName          The name of the zone the player is in
+ * @param x                 The x coordinate of the player
+ * @param y                 The y coordinate of the player
+ * @param gold              The gold of the player
+ * @param collectedPokemons The number of Pokemon the player has collected
+ * @param party             The Pokemon in the party of the player
+ * @param inventory         The items in the inventory of the player
+ * @param collected         The names of the collected species
+ */
+public record GameSnapshot(String playerName, String zoneName, float x, float y, int gold, int collectedPokemons,
+                           List<PokemonSnapshot> party, List<Item> inventory, List<String> collected) {
+
+    /**
+     * Takes a snapshot of the current state of the game.
+     *
+     * @param player   The player
+     * @param zoneName The name of the zone the player is in
+     * @param pokedex  The Pokedex holding the collected flags
+     * @return The snapshot
+     */
+    public static GameSnapshot of(Player player, String zoneName, Pokedex pokedex) {
+        ArrayList<PokemonSnapshot> party = new ArrayList<>(player.getPartySize());
+        for (Pokemon pokemon : player.getParty()) {
+            party.add(PokemonSnapshot.of(pokemon));
+        }
+        ArrayList<Item> inventory = new ArrayList<>(player.getInvetorySize());
+        for (Item item : player.getInvetory()) {
+            inventory.add(item);
+        }
+        ArrayList<String> collected = new ArrayList<>();
+        for (String name : pokedex.getCollected()) {
+            collected.add(name);
+        }
+        return new GameSnapshot(player.getName(), zoneName, player.getX(), player.getY(), player.getGold(), player.getCollectedPokemons(),
+                List.copyOf(party), List.copyOf(inventory), List.copyOf(collected));
+    }
+
+    /**
+     * An immutable copy of the saved state of a Pokemon.
+     *
+     * @param name       The name of the species
+     * @param tier       The evolutionary tier
+     * @param experience The experience points
+     * @param level      The level
+     * @param health     The current health
+     * @param maxHealth  The maximum health
+     * @param attack     The attack power
+     * @param defense    The defense power
+     * @param speed      The speed
+     * @param fainted    Whether the Pokemon has fainted
+     * @param abilities  The names of the known abilities
+     * @param unlocked   Bit i is set if ability i is unlocked
+     */
+    public record PokemonSnapshot(String name, int tier, int experience, int level, int health, int maxHealth, int attack,
+                                  int defense, int speed, boolean fainted, List<String> abilities, long unlocked) {
+
+        private static PokemonSnapshot of(Pokemon pokemon) {
+            ArrayList<String> abilities = new ArrayList<>(pokemon.getNumOfAbilities());
+            long unlocked = 0;
+            for (Ability ability : pokemon.getAbilities()) {
+                if (ability.isUnlocked()) {
+                    unlocked |= 1L << abilities.size();
+                }
+                abilities.add(ability.getName());
+            }
+            return new PokemonSnapshot(pokemon.getName(), pokemon.getTier(), pokemon.getExperience(), pokemon.getLevel(), pokemon.getHealth(),
+                    pokemon.getMaxHealth(), pokemon.getAttack(), pokemon.getDefense(), pokemon.getSpeed(), pokemon.hasFainted(),
+                    List.copyOf(abilities), unlocked);
+        }
+
+        public boolean isUnlocked(int ability) {
+            return (this.unlocked & 1L << ability) != 0;
+        }
+    }
+}
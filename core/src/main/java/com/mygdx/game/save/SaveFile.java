@@ -0,0 +1,219 @@
+package com.mygdx.game.save;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A save file made of independent sections, written through a memory mapped FileChannel.
+ * <p>
+ * The file starts with a header holding a magic number, the format version, a commit sequence number and a directory
+ * entry for every {@link Section}: the offset, capacity, length and CRC32 of its data. Every section lives in its own region of
+ * the file, so writing one section never touches the others. A section is only written when its content differs
+ * from what is in the file; a section that outgrows its region is moved to a new, larger region at the end of the file.
+ * <p>
+ * Writes go to the mapped memory. A write starts with {@link #begin()}, which clears the sequence number,
+ * and ends with {@link #commit(long)}, which forces the sections to disk before storing the new sequence number.
+ * A file whose write was interrupted therefore has no sequence number and is not {@link #isComplete() complete}.
+ */
+public class SaveFile implements Disposable {
+    public static final int VERSION = 2;
+    private static final int MAGIC = 0x504B4D53;
+    private static final int ENTRY_SIZE = 16;
+    private static final int HEADER_SIZE = 16 + Section.values().length * ENTRY_SIZE;
+    private static final int INITIAL_CAPACITY = 1024;
+    private final FileChannel channel;
+    private final CRC32 crc;
+    private MappedByteBuffer buffer;
+
+    /**
+     * Opens a save file, creating it if it does not exist.
+     * A file without a valid header or with a different version is treated as empty and overwritten on the next write.
+     *
+     * @param file The file to open
+     */
+    public SaveFile(File file) {
+        this.crc = new CRC32();
+        try {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (this.channel.size() >= HEADER_SIZE) {
+                this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, this.channel.size());
+                if (this.buffer.getInt(0) != MAGIC || this.buffer.getInt(4) != VERSION) {
+                    System.out.println("Ignoring save file " + file + " with an unknown format");
+                    this.initialize();
+                }
+            } else {
+                this.initialize();
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not open save file " + file, e);
+        }
+    }
+
+    private void initialize() throws IOException {
+        int size = HEADER_SIZE + Section.values().length * INITIAL_CAPACITY;
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.buffer.putInt(0, MAGIC);
+        this.buffer.putInt(4, VERSION);
+        this.buffer.putLong(8, 0);
+        for (Section section : Section.values()) {
+            int entry = getEntry(section);
+            this.buffer.putInt(entry, HEADER_SIZE + section.ordinal() * INITIAL_CAPACITY);
+            this.buffer.putInt(entry + 4, INITIAL_CAPACITY);
+            this.buffer.putInt(entry + 8, 0);
+            this.buffer.putInt(entry + 12, 0);
+        }
+    }
+
+    private static int getEntry(Section section) {
+        return 16 + section.ordinal() * ENTRY_SIZE;
+    }
+
+    /**
+     * Writes a section unless the file already holds the same content.
+     *
+     * @param section The section to write
+     * @param data    The content of the section, from its position to its limit; the position is not changed
+     * @return True if the section was written, false if it was unchanged
+     */
+    public boolean write(Section section, ByteBuffer data) {
+        int length = data.remaining();
+        this.crc.reset();
+        this.crc.update(data.duplicate());
+        int checksum = (int) this.crc.getValue();
+
+        int entry = getEntry(section);
+        if (this.buffer.getInt(entry + 8) == length && this.buffer.getInt(entry + 12) == checksum) {
+            return false;
+        }
+        if (length > this.buffer.getInt(entry + 4)) {
+            this.grow(section, length);
+        }
+        this.buffer.put(this.buffer.getInt(entry), data, data.position(), length);
+        this.buffer.putInt(entry + 8, length);
+        this.buffer.putInt(entry + 12, checksum);
+        return true;
+    }
+
+    /**
+     * Moves a section to a new region at the end of the file that can hold at least the given number of bytes.
+     */
+    private void grow(Section section, int length) {
+        int capacity = Integer.highestOneBit(length) << 1;
+        int offset = this.buffer.capacity();
+        try {
+            this.buffer.force();
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) offset + capacity);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not grow save file", e);
+        }
+        int entry = getEntry(section);
+        this.buffer.putInt(entry, offset);
+        this.buffer.putInt(entry + 4, capacity);
+    }
+
+    /**
+     * Returns the content of a section.
+     *
+     * @param section The section to read
+     * @return A read-only view on the content, or null if the section was never written or is corrupted
+     */
+    public ByteBuffer read(Section section) {
+        int entry = getEntry(section);
+        int offset = this.buffer.getInt(entry);
+        int length = this.buffer.getInt(entry + 8);
+        if (length == 0 || offset + length > this.buffer.capacity()) {
+            return null;
+        }
+        ByteBuffer data = this.buffer.slice(offset, length).asReadOnlyBuffer();
+        this.crc.reset();
+        this.crc.update(data.duplicate());
+        if ((int) this.crc.getValue() != this.buffer.getInt(entry + 12)) {
+            System.out.println("Save section " + section + " is corrupted");
+            return null;
+        }
+        return data;
+    }
+
+    /**
+     * Marks the file as being written. Until the next commit the file is not complete.
+     */
+    public void begin() {
+        this.buffer.putLong(8, 0);
+        this.buffer.force();
+    }
+
+    /**
+     * Forces the written sections to disk and then stores the sequence number, completing the write.
+     *
+     * @param sequence The sequence number of the write, greater than 0
+     */
+    public void commit(long sequence) {
+        this.buffer.force();
+        this.buffer.putLong(8, sequence);
+        this.buffer.force();
+    }
+
+    /**
+     * Returns the sequence number of the last completed write.
+     *
+     * @return The sequence number, or 0 if the file was never completely written
+     */
+    public long getSequence() {
+        return this.buffer.getLong(8);
+    }
+
+    /**
+     * Returns whether the last write was committed and every section of the file has been written.
+     *
+     * @return True if the file holds a complete save
+     */
+    public boolean isComplete() {
+        if (this.getSequence() == 0) {
+            return false;
+        }
+        for (Section section : Section.values()) {
+            if (this.buffer.getInt(getEntry(section) + 8) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Forces the written sections out to the disk.
+     */
+    public void flush() {
+        this.buffer.force();
+    }
+
+    /**
+     * Flushes the file and closes the channel.
+     */
+    @Override
+    public void dispose() {
+        this.flush();
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not close save file", e);
+        }
+    }
+
+    /**
+     * The sections of a save file.
+     */
+    public enum Section {
+        PLAYER,
+        PARTY,
+        INVENTORY,
+        POKEDEX
+    }
+}
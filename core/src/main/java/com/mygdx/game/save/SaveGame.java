@@ -0,0 +1,420 @@
+package com.mygdx.game.save;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Null;
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.ability.AbilityDefinition;
+import com.mygdx.game.battle.Combatant;
+import com.mygdx.game.character.Player;
+import com.mygdx.game.item.Effect;
+import com.mygdx.game.item.Item;
+import com.mygdx.game.item.Pokeball;
+import com.mygdx.game.item.Potion;
+import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.pokemon.Pokemon;
+import com.mygdx.game.pokemon.Species;
+
+import java.io.File;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves and loads the state of a game: the player and their position, the current zone, the party with the stats
+ * and abilities of every Pokemon, the inventory and the collected flags of the Pokedex.
+ * <p>
+ * Saving takes a {@link GameSnapshot} on the calling thread and hands it to a background thread, which encodes it and
+ * writes it to disk; the render thread never waits for the disk. The game is saved to two slots in turn, each one a
+ * {@link SaveFile}, so a crash while one slot is being written leaves the previous save in the other slot intact.
+ * Loading picks the complete slot with the highest sequence number. Within a slot only the sections that changed are rewritten.
+ * <p>
+ * The time spent taking the snapshot and the time spent writing it are recorded and can be queried.
+ */
+public class SaveGame implements Disposable {
+    private static final byte ITEM_POKEBALL = 0;
+    private static final byte ITEM_POTION = 1;
+    private final SaveFile[] slots;
+    private final ExecutorService writer;
+    private ByteBuffer scratch;
+    private long sequence;
+    private volatile float snapshotMillis;
+    private volatile float writeMillis;
+    private volatile float maxWriteMillis;
+    private volatile int saveCount;
+
+    /**
+     * Opens the save slots stored in the given directory.
+     *
+     * @param directory The directory of the save slots, created on the first save if it does not exist
+     */
+    public SaveGame(File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new GdxRuntimeException("Could not create save directory " + directory);
+        }
+        this.slots = new SaveFile[]{new SaveFile(new File(directory, "save_a.dat")), new SaveFile(new File(directory, "save_b.dat"))};
+        this.sequence = Math.max(this.slots[0].getSequence(), this.slots[1].getSequence());
+        this.scratch = ByteBuffer.allocate(4096);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "save-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Saves the game in the background. Only the snapshot of the state is taken on the calling thread.
+     *
+     * @param player   The player
+     * @param zoneName The name of the zone the player is in
+     * @param pokedex  The Pokedex holding the collected flags
+     */
+    public void save(Player player, String zoneName, Pokedex pokedex) {
+        long startTime = System.nanoTime();
+        GameSnapshot snapshot = GameSnapshot.of(player, zoneName, pokedex);
+        this.snapshotMillis = (System.nanoTime() - startTime) / 1_000_000f;
+        this.writer.execute(() -> this.write(snapshot));
+    }
+
+    /**
+     * Writes a snapshot to the slot not holding the latest save. Runs on the writer thread.
+     */
+    private void write(GameSnapshot snapshot) {
+        long startTime = System.nanoTime();
+        long sequence = this.sequence + 1;
+        SaveFile slot = this.slots[(int) (sequence % this.slots.length)];
+        int written = 0;
+        try {
+            slot.begin();
+            for (SaveFile.Section section : SaveFile.Section.values()) {
+                if (slot.write(section, this.encode(section, snapshot))) {
+                    written++;
+                }
+            }
+            slot.commit(sequence);
+        } catch (GdxRuntimeException e) {
+            System.out.println("Could not save game: " + e.getMessage());
+            return;
+        }
+        this.sequence = sequence;
+
+        float millis = (System.nanoTime() - startTime) / 1_000_000f;
+        this.writeMillis = millis;
+        this.maxWriteMillis = Math.max(this.maxWriteMillis, millis);
+        this.saveCount++;
+        System.out.println("Saved game " + sequence + " in " + millis + " ms (snapshot " + this.snapshotMillis + " ms), "
+                + written + " of " + SaveFile.Section.values().length + " sections written");
+    }
+
+    /**
+     * Blocks until every save handed to the writer thread has been written.
+     */
+    private void awaitWrites() {
+        try {
+            this.writer.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new GdxRuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns whether a complete save can be loaded.
+     *
+     * @return True if there is a save game
+     */
+    public boolean hasSave() {
+        this.awaitWrites();
+        return this.slots[0].isComplete() || this.slots[1].isComplete();
+    }
+
+    /**
+     * Loads the latest saved game, or the one before it if the latest save is damaged or cannot be decoded.
+     * The collected flags are restored into the given Pokedex.
+     *
+     * @param pokedex The Pokedex of the game
+     * @return The loaded player and zone, or null if there is no complete and valid save
+     */
+    @Null
+    public LoadedGame load(Pokedex pokedex) {
+        this.awaitWrites();
+        SaveFile newest = this.slots[0].getSequence() >= this.slots[1].getSequence() ? this.slots[0] : this.slots[1];
+        SaveFile oldest = newest == this.slots[0] ? this.slots[1] : this.slots[0];
+        LoadedGame loadedGame = load(newest, pokedex);
+        if (loadedGame == null) {
+            loadedGame = load(oldest, pokedex);
+        }
+        return loadedGame;
+    }
+
+    @Null
+    private static LoadedGame load(SaveFile slot, Pokedex pokedex) {
+        if (!slot.isComplete()) {
+            return null;
+        }
+        ByteBuffer playerData = slot.read(SaveFile.Section.PLAYER);
+        ByteBuffer partyData = slot.read(SaveFile.Section.PARTY);
+        ByteBuffer inventoryData = slot.read(SaveFile.Section.INVENTORY);
+        ByteBuffer pokedexData = slot.read(SaveFile.Section.POKEDEX);
+        if (playerData == null || partyData == null || inventoryData == null || pokedexData == null) {
+            return null;
+        }
+        try {
+            return decode(playerData, partyData, inventoryData, pokedexData, pokedex);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // The checksums match but the content is truncated or names a removed effect, for example after an update.
+            System.out.println("Could not decode save slot: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the sections of a slot. The collected flags are only restored into the Pokedex
+     * once every section has been decoded.
+     *
+     * @throws BufferUnderflowException If a section is shorter than its content
+     * @throws IllegalArgumentException If a section names an unknown effect
+     */
+    private static LoadedGame decode(ByteBuffer playerData, ByteBuffer partyData, ByteBuffer inventoryData, ByteBuffer pokedexData, Pokedex pokedex) {
+        Player player = new Player(getString(playerData), pokedex);
+        String zoneName = getString(playerData);
+        player.setPosition(playerData.getFloat(), playerData.getFloat());
+        player.gainGold(playerData.getInt());
+        player.setCollectedPokemons(playerData.getInt());
+
+        int partySize = partyData.getInt();
+        for (int i = 0; i < partySize; i++) {
+            Pokemon pokemon = readPokemon(partyData, pokedex);
+            if (pokemon != null) {
+                player.addPokemonToParty(pokemon);
+            }
+        }
+
+        int items = inventoryData.getInt();
+        for (int i = 0; i < items; i++) {
+            if (inventoryData.get() == ITEM_POKEBALL) {
+                player.takeItem(new Pokeball());
+            } else {
+                player.takeItem(new Potion(getString(inventoryData), getString(inventoryData), inventoryData.getInt(), inventoryData.getInt(),
+                        Effect.valueOf(getString(inventoryData))));
+            }
+        }
+
+        int collectedCount = pokedexData.getInt();
+        // Every name takes at least its two length bytes.
+        if (collectedCount < 0 || collectedCount > pokedexData.remaining() / 2) {
+            throw new BufferUnderflowException();
+        }
+        String[] collected = new String[collectedCount];
+        for (int i = 0; i < collected.length; i++) {
+            collected[i] = getString(pokedexData);
+        }
+        for (String name : collected) {
+            pokedex.setCollected(name);
+        }
+        return new LoadedGame(player, zoneName);
+    }
+
+    /**
+     * Encodes a section of a snapshot into the scratch buffer, growing the buffer until the section fits.
+     */
+    private ByteBuffer encode(SaveFile.Section section, GameSnapshot snapshot) {
+        while (true) {
+            this.scratch.clear();
+            try {
+                switch (section) {
+                    case PLAYER:
+                        this.writePlayer(snapshot);
+                        break;
+                    case PARTY:
+                        this.writeParty(snapshot);
+                        break;
+                    case INVENTORY:
+                        this.writeInventory(snapshot);
+                        break;
+                    case POKEDEX:
+                        this.writePokedex(snapshot);
+                        break;
+                }
+                this.scratch.flip();
+                return this.scratch;
+            } catch (BufferOverflowException e) {
+                this.scratch = ByteBuffer.allocate(this.scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private void writePlayer(GameSnapshot snapshot) {
+        putString(this.scratch, snapshot.playerName());
+        putString(this.scratch, snapshot.zoneName());
+        this.scratch.putFloat(snapshot.x());
+        this.scratch.putFloat(snapshot.y());
+        this.scratch.putInt(snapshot.gold());
+        this.scratch.putInt(snapshot.collectedPokemons());
+    }
+
+    private void writeParty(GameSnapshot snapshot) {
+        this.scratch.putInt(snapshot.party().size());
+        for (GameSnapshot.PokemonSnapshot pokemon : snapshot.party()) {
+            putString(this.scratch, pokemon.name());
+            this.scratch.putInt(pokemon.tier());
+            this.scratch.putInt(pokemon.experience());
+            this.scratch.putInt(pokemon.level());
+            this.scratch.putInt(pokemon.health());
+            this.scratch.putInt(pokemon.maxHealth());
+            this.scratch.putInt(pokemon.attack());
+            this.scratch.putInt(pokemon.defense());
+            this.scratch.putInt(pokemon.speed());
+            this.scratch.put((byte) (pokemon.fainted() ? 1 : 0));
+            this.scratch.putInt(pokemon.abilities().size());
+            for (int i = 0; i < pokemon.abilities().size(); i++) {
+                putString(this.scratch, pokemon.abilities().get(i));
+                this.scratch.put((byte) (pokemon.isUnlocked(i) ? 1 : 0));
+            }
+        }
+    }
+
+    private void writeInventory(GameSnapshot snapshot) {
+        int countPosition = this.scratch.position();
+        int count = 0;
+        this.scratch.putInt(0);
+        for (Item item : snapshot.inventory()) {
+            if (item instanceof Pokeball) {
+                this.scratch.put(ITEM_POKEBALL);
+            } else if (item instanceof Potion) {
+                Potion potion = (Potion) item;
+                this.scratch.put(ITEM_POTION);
+                putString(this.scratch, potion.getName());
+                putString(this.scratch, potion.getDescription());
+                this.scratch.putInt(potion.getDuration());
+                this.scratch.putInt(potion.getAmount());
+                putString(this.scratch, potion.getEffect().name());
+            } else {
+                System.out.println("Cannot save item " + item.getName());
+                continue;
+            }
+            count++;
+        }
+        this.scratch.putInt(countPosition, count);
+    }
+
+    private void writePokedex(GameSnapshot snapshot) {
+        this.scratch.putInt(snapshot.collected().size());
+        for (String name : snapshot.collected()) {
+            putString(this.scratch, name);
+        }
+    }
+
+    @Null
+    private static Pokemon readPokemon(ByteBuffer data, Pokedex pokedex) {
+        String name = getString(data);
+        int tier = data.getInt();
+        int experience = data.getInt();
+        int level = data.getInt();
+        int health = data.getInt();
+        int maxHealth = data.getInt();
+        int attack = data.getInt();
+        int defense = data.getInt();
+        int speed = data.getInt();
+        boolean fainted = data.get() == 1;
+        int abilities = data.getInt();
+
+        Species species = pokedex.getSpecies(name);
+        Combatant combatant = species == null ? null : new Combatant(name, species.type(), level, health, maxHealth, attack, defense, speed);
+        for (int i = 0; i < abilities; i++) {
+            String abilityName = getString(data);
+            boolean unlocked = data.get() == 1;
+            if (species == null) {
+                continue;
+            }
+            for (AbilityDefinition definition : species.abilityPool()) {
+                if (definition.name().equals(abilityName)) {
+                    combatant.addAbility(new Ability(definition, unlocked));
+                    break;
+                }
+            }
+        }
+        if (species == null) {
+            System.out.println("Skipping saved Pokemon of unknown species " + name);
+            return null;
+        }
+        combatant.setFainted(fainted);
+
+        Pokemon pokemon = new Pokemon(species, tier, combatant);
+        pokemon.setExperience(experience);
+        pokemon.setCollected(true);
+        return pokemon;
+    }
+
+    private static void putString(ByteBuffer buffer, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns how long taking the last snapshot took on the calling thread.
+     *
+     * @return The time in milliseconds
+     */
+    public float getSnapshotMillis() {
+        return this.snapshotMillis;
+    }
+
+    /**
+     * Returns how long writing the last save took on the writer thread, including forcing it to disk.
+     *
+     * @return The time in milliseconds
+     */
+    public float getWriteMillis() {
+        return this.writeMillis;
+    }
+
+    public float getMaxWriteMillis() {
+        return this.maxWriteMillis;
+    }
+
+    public int getSaveCount() {
+        return this.saveCount;
+    }
+
+    /**
+     * Waits for the pending saves to be written and closes the save slots.
+     */
+    @Override
+    public void dispose() {
+        this.writer.shutdown();
+        try {
+            if (!this.writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.out.println("Timed out waiting for the game to be saved");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SaveFile slot : this.slots) {
+            slot.dispose();
+        }
+    }
+
+    /**
+     * A game restored from a save.
+     *
+     * @param player   The restored player, with their party and inventory
+     * @param zoneName The name of the zone the player was in
+     */
+    public record LoadedGame(Player player, String zoneName) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.mygdx.game.battle;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.pokemon.Species;
+import com.mygdx.game.pokemon.SpeciesLoader;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the simulated Pokemon are built like the Pokemon of the game.
+ */
+public class BalanceSimulatorTest {
+
+    @Test
+    public void simulatedPokemonKnowFourDistinctAbilities() {
+        AbilityLoader abilityLoader = new AbilityLoader(new FileHandle(new File("abilities.json")));
+        Species[] species = new SpeciesLoader(new FileHandle(new File("pokemons.json")), abilityLoader).getSpecies().toArray(new Species[0]);
+        BalanceSimulator simulator = new BalanceSimulator(species, 1, 10, 100);
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (Species oneSpecies : species) {
+            for (int i = 0; i < 20; i++) {
+                Combatant combatant = simulator.createCombatant(oneSpecies, random);
+                HashSet<String> names = new HashSet<>();
+                for (Ability ability : combatant.getAbilities()) {
+                    names.add(ability.getName());
+                }
+                assertEquals(4, combatant.getNumOfAbilities(), oneSpecies.name());
+                assertEquals(4, names.size(), oneSpecies.name() + " knows " + names);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.mygdx.game.game;
+
+import com.mygdx.game.HeadlessGame;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.battle.BattleLog;
+import com.mygdx.game.battle.BattleReplay;
+import com.mygdx.game.character.Player;
+import com.mygdx.game.item.Effect;
+import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.pokemon.Pokemon;
+import com.mygdx.game.random.RandomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks how the end of a battle affects the player's party.
+ */
+public class BattleControllerTest {
+    private Pokedex pokedex;
+    private Player player;
+
+    @BeforeEach
+    public void setUp() {
+        HeadlessGame.start();
+        this.pokedex = new Pokedex(new AbilityLoader(), new RandomService(42));
+        this.player = new Player("Test", this.pokedex);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.pokedex.dispose();
+    }
+
+    private Pokemon createPokemon(String name, int speed) {
+        Pokemon pokemon = this.pokedex.getPokemon(name);
+        pokemon.setSpeed(speed);
+        return pokemon;
+    }
+
+    private static void assertParty(Player player, Pokemon... expected) {
+        Iterator<Pokemon> party = player.getParty().iterator();
+        for (Pokemon pokemon : expected) {
+            assertSame(pokemon, party.next());
+        }
+        assertFalse(party.hasNext());
+    }
+
+    @Test
+    public void runningClearsSlowedPokemonThatMovedInTheParty() {
+        Pokemon fast = this.createPokemon("charmander", 10);
+        Pokemon middle = this.createPokemon("squirtle", 8);
+        Pokemon slow = this.createPokemon("bulbasaur", 5);
+        this.player.addPokemonToParty(slow);
+        this.player.addPokemonToParty(fast);
+        this.player.addPokemonToParty(middle);
+        assertParty(this.player, fast, middle, slow);
+
+        BattleController battleController = new BattleController(this.player, this.createPokemon("pikachu", 7), new RandomService(1));
+        fast.addStatusEffect(Effect.FREEZE, 3, 3);
+        assertEquals(7, fast.getSpeed());
+        assertParty(this.player, middle, fast, slow);
+
+        battleController.run();
+
+        assertFalse(fast.hasStatusEffect(Effect.FREEZE));
+        assertEquals(10, fast.getSpeed());
+        assertParty(this.player, fast, middle, slow);
+    }
+
+    @Test
+    public void battleLogIsWrittenInTheBackgroundAndReplays(@TempDir File logDirectory) throws IOException {
+        this.player.addPokemonToParty(this.createPokemon("charmander", 10));
+        BattleController battleController = new BattleController(this.player, this.createPokemon("pikachu", 7), new RandomService(1));
+        battleController.setLogDirectory(logDirectory);
+
+        boolean ended = false;
+        for (int turn = 0; turn < 5 && !ended; turn++) {
+            battleController.attack(battleController.getSelectedPokemon().getAbility(0));
+            ended = battleController.checkBattleEnd();
+            if (!ended) {
+                battleController.nextTurn();
+                ended = battleController.checkBattleEnd();
+            }
+        }
+        if (!ended) {
+            battleController.run();
+        }
+        battleController.dispose();
+
+        File[] logs = logDirectory.listFiles();
+        assertNotNull(logs);
+        assertEquals(1, logs.length);
+        BattleReplay replay;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(logs[0]))) {
+            replay = BattleReplay.read(in);
+        }
+        BattleReplay.Result result = replay.replay(false);
+        assertEquals(-1, result.divergedAt());
+        assertNotNull(result.outcome());
+        assertEquals(ended, result.outcome() != BattleLog.Outcome.RAN);
+    }
+}
@@ -0,0 +1,149 @@
+package com.mygdx.game.game;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.math.Rectangle;
+import com.mygdx.game.HeadlessGame;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.character.Player;
+import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.pokemon.Pokemon;
+import com.mygdx.game.random.RandomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the per-frame collision pass of the overworld does not allocate once it has warmed up.
+ */
+public class GameControllerTest {
+    private static final int MAP_SIZE = 1024;
+    private static final int POSITIONS = 256;
+    private static final int WARMUP_FRAMES = 20_000;
+    private static final int MEASURED_FRAMES = 10_000;
+    private static final float FRAME_TIME = 1 / 60f;
+    private Pokedex pokedex;
+    private TiledMap map;
+    private Zone zone;
+    private Player player;
+    private GameController gameController;
+    private float[] positions;
+
+    @BeforeEach
+    public void setUp() {
+        HeadlessGame.start();
+        RandomService random = new RandomService(42);
+        this.pokedex = new Pokedex(new AbilityLoader(), random);
+        this.player = new Player("Test", this.pokedex);
+        this.player.collectPokemon(this.pokedex.getPokemon("charmander"));
+        this.map = createMap();
+        this.zone = new Zone("test", this.map, this.player, this.pokedex, random.get(RandomService.Stream.SPAWN));
+        // The player is never moved onto a wild Pokemon or the exit, so the screen is never used.
+        this.gameController = new GameController(this.player, null);
+        this.positions = this.createPositions();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.zone.dispose();
+        this.map.dispose();
+        this.pokedex.dispose();
+    }
+
+    /**
+     * Creates a map whose collision rectangles and wild Pokemon are mixed over the same area,
+     * so the collision pass finds candidates in every grid it queries. The exit is outside the walked area.
+     */
+    private static TiledMap createMap() {
+        Random random = new Random(1);
+        TiledMap map = new TiledMap();
+
+        MapLayer collision = new MapLayer();
+        collision.setName("Collision");
+        for (int i = 0; i < 200; i++) {
+            collision.getObjects().add(new RectangleMapObject(random.nextFloat() * MAP_SIZE, random.nextFloat() * MAP_SIZE, 24, 24));
+        }
+        map.getLayers().add(collision);
+
+        MapLayer exits = new MapLayer();
+        exits.setName("Exits");
+        RectangleMapObject exit = new RectangleMapObject(MAP_SIZE * 4, MAP_SIZE * 4, 16, 16);
+        exit.setName("test_exit");
+        exits.getObjects().add(exit);
+        map.getLayers().add(exits);
+
+        MapLayer pokemons = new MapLayer();
+        pokemons.setName("Pokemons");
+        for (int i = 0; i < 8; i++) {
+            pokemons.getObjects().add(new RectangleMapObject(random.nextFloat() * (MAP_SIZE - 256), random.nextFloat() * (MAP_SIZE - 256), 256, 256));
+        }
+        map.getLayers().add(pokemons);
+        return map;
+    }
+
+    /**
+     * Picks player positions whose movement in a frame stays clear of every wild Pokemon.
+     */
+    private float[] createPositions() {
+        Random random = new Random(3);
+        Rectangle reach = new Rectangle();
+        float[] positions = new float[POSITIONS * 2];
+        int count = 0;
+        while (count < POSITIONS) {
+            float x = random.nextFloat() * (MAP_SIZE - 32);
+            float y = random.nextFloat() * (MAP_SIZE - 32);
+            reach.set(x - 8, y - 8, this.player.getWidth() + 16, this.player.getHeight() + 16);
+            boolean clear = true;
+            for (Rectangle hitbox : this.zone.getPokemons().values()) {
+                if (reach.overlaps(hitbox)) {
+                    clear = false;
+                    break;
+                }
+            }
+            if (clear) {
+                positions[count * 2] = x;
+                positions[count * 2 + 1] = y;
+                count++;
+            }
+        }
+        return positions;
+    }
+
+    private void runFrames(int frames, Pokemon knownPokemon) {
+        for (int i = 0; i < frames; i++) {
+            int position = i % POSITIONS;
+            this.player.setPosition(this.positions[position * 2], this.positions[position * 2 + 1]);
+            this.player.getVelocity().set(200, 200);
+            this.gameController.checkCollisions(FRAME_TIME, this.zone);
+            if (this.zone.getPokemons().get(knownPokemon) == null) {
+                throw new IllegalStateException("Lost the hitbox of " + knownPokemon.getName());
+            }
+        }
+    }
+
+    @Test
+    public void checkCollisionsDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        assertFalse(this.zone.getPokemons().isEmpty());
+        Pokemon knownPokemon = this.zone.getPokemons().keySet().iterator().next();
+
+        this.runFrames(WARMUP_FRAMES, knownPokemon);
+        threads.getCurrentThreadAllocatedBytes();
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        this.runFrames(MEASURED_FRAMES, knownPokemon);
+        long after = threads.getCurrentThreadAllocatedBytes();
+
+        assertEquals(0, after - before, "Bytes allocated by " + MEASURED_FRAMES + " frames of collision checks");
+    }
+}
@@ -0,0 +1,82 @@
+package com.mygdx.game.pokemon;
+
+import com.mygdx.game.HeadlessGame;
+import com.mygdx.game.ability.Ability;
+import com.mygdx.game.ability.AbilityDefinition;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.random.RandomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the cache of the ability sets rolled by the Pokedex.
+ */
+public class PokedexTest {
+    private static final int CACHE_SIZE = 16;
+    private Pokedex pokedex;
+
+    @BeforeEach
+    public void setUp() {
+        HeadlessGame.start();
+        this.pokedex = new Pokedex(new AbilityLoader(), new RandomService(42));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.pokedex.dispose();
+    }
+
+    private static List<AbilityDefinition> getDefinitions(Pokemon pokemon) {
+        ArrayList<AbilityDefinition> definitions = new ArrayList<>();
+        for (Ability ability : pokemon.getCombatant().getAbilities()) {
+            definitions.add(ability.getDefinition());
+        }
+        return definitions;
+    }
+
+    @Test
+    public void abilitySetsAreRolledOncePerCachedSpecies() {
+        this.pokedex.getPokemon("charmander");
+        this.pokedex.getPokemon("charmander");
+
+        assertEquals(1, this.pokedex.getAbilitySetsRolled());
+        assertEquals(1, this.pokedex.getCachedAbilitySets());
+    }
+
+    @Test
+    public void cacheIsBoundedAndEvictedSetsAreRolledAgainTheSame() {
+        assertTrue(this.pokedex.getSize() > CACHE_SIZE, "The dex must be larger than the cache");
+        List<AbilityDefinition> first = getDefinitions(this.pokedex.getPokemon("charmander"));
+
+        int rolled = 1;
+        for (Species species : this.pokedex) {
+            if (!species.name().equals("charmander")) {
+                this.pokedex.getPokemon(species.name());
+                rolled++;
+            }
+        }
+        assertEquals(rolled, this.pokedex.getAbilitySetsRolled());
+        assertEquals(CACHE_SIZE, this.pokedex.getCachedAbilitySets());
+
+        List<AbilityDefinition> again = getDefinitions(this.pokedex.getPokemon("charmander"));
+        assertEquals(rolled + 1, this.pokedex.getAbilitySetsRolled(), "charmander should have been evicted and rolled again");
+        assertEquals(first, again);
+    }
+
+    @Test
+    public void everyRolledAbilitySetIsDistinct() {
+        for (Species species : this.pokedex) {
+            List<AbilityDefinition> abilities = getDefinitions(this.pokedex.getPokemon(species.name()));
+            assertEquals(4, abilities.size(), species.name());
+            assertEquals(abilities.size(), new HashSet<>(abilities).size(), species.name() + " rolled " + abilities);
+        }
+    }
+}
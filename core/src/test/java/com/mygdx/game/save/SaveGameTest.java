@@ -0,0 +1,105 @@
+package com.mygdx.game.save;
+
+import com.mygdx.game.HeadlessGame;
+import com.mygdx.game.ability.AbilityLoader;
+import com.mygdx.game.character.Player;
+import com.mygdx.game.pokemon.Pokedex;
+import com.mygdx.game.random.RandomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Checks that loading falls back to the previous slot when the latest one cannot be used.
+ */
+public class SaveGameTest {
+    private static final int GOLD = 123;
+    @TempDir
+    public File directory;
+    private Pokedex pokedex;
+
+    @BeforeEach
+    public void setUp() {
+        HeadlessGame.start();
+        this.pokedex = new Pokedex(new AbilityLoader(), new RandomService(42));
+        Player player = new Player("Test", this.pokedex);
+        player.collectPokemon(this.pokedex.getPokemon("charmander"));
+        player.gainGold(GOLD);
+
+        // The first save is written to the second slot.
+        SaveGame saveGame = new SaveGame(this.directory);
+        saveGame.save(player, "route1", this.pokedex);
+        saveGame.dispose();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.pokedex.dispose();
+    }
+
+    private static void putString(ByteBuffer buffer, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Writes a newer save into the first slot, copying the older save except for one section.
+     * The section passes its checksum, because the slot computes it from the replaced content.
+     */
+    private void writeNewerSave(SaveFile.Section replaced, ByteBuffer content) {
+        SaveFile older = new SaveFile(new File(this.directory, "save_b.dat"));
+        SaveFile newer = new SaveFile(new File(this.directory, "save_a.dat"));
+        newer.begin();
+        for (SaveFile.Section section : SaveFile.Section.values()) {
+            newer.write(section, section == replaced ? content : older.read(section));
+        }
+        newer.commit(older.getSequence() + 1);
+        newer.dispose();
+        older.dispose();
+    }
+
+    private void assertLoadsOlderSave() {
+        SaveGame saveGame = new SaveGame(this.directory);
+        SaveGame.LoadedGame loadedGame = saveGame.load(this.pokedex);
+        saveGame.dispose();
+
+        assertNotNull(loadedGame);
+        assertEquals("route1", loadedGame.zoneName());
+        assertEquals(GOLD, loadedGame.player().getGold());
+    }
+
+    @Test
+    public void unknownEffectFallsBackToOlderSave() {
+        ByteBuffer inventory = ByteBuffer.allocate(64);
+        inventory.putInt(1);
+        inventory.put((byte) 1);
+        putString(inventory, "Potion");
+        putString(inventory, "Heals");
+        inventory.putInt(1);
+        inventory.putInt(10);
+        putString(inventory, "REMOVED_EFFECT");
+        inventory.flip();
+        this.writeNewerSave(SaveFile.Section.INVENTORY, inventory);
+
+        this.assertLoadsOlderSave();
+    }
+
+    @Test
+    public void truncatedPartyFallsBackToOlderSave() {
+        ByteBuffer party = ByteBuffer.allocate(4);
+        party.putInt(3);
+        party.flip();
+        this.writeNewerSave(SaveFile.Section.PARTY, party);
+
+        this.assertLoadsOlderSave();
+    }
+}
@@ -0,0 +1,94 @@
+package com.mygdx.game;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+
+import java.lang.reflect.Proxy;
+import java.util.Random;
+
+/**
+ * Utility class starting a headless libGDX application for the tests and the benchmarks.
+ * The headless backend does not provide OpenGL, so a GL20 that ignores every call is installed;
+ * textures can then be created without a GPU.
+ */
+public final class HeadlessGame {
+    private static HeadlessApplication application;
+
+    private HeadlessGame() {
+    }
+
+    /**
+     * Starts the headless application if it has not been started yet.
+     */
+    public static synchronized void start() {
+        if (application != null) {
+            return;
+        }
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        configuration.updatesPerSecond = 1;
+        application = new HeadlessApplication(new ApplicationAdapter() {
+        }, configuration);
+
+        GL20 gl = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class}, (proxy, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            } else if (returnType == int.class) {
+                return 0;
+            } else if (returnType == float.class) {
+                return 0f;
+            }
+            return null;
+        });
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+    }
+
+    /**
+     * Creates a square TiledMap without tile layers, containing the object layers read by Zone.
+     * Collision rectangles and Pokemon spawn areas are scattered randomly over the map.
+     * The map has a single exit in its top right corner.
+     *
+     * @param mapSize         The width and height of the map in world units
+     * @param collisionCount  The number of collision rectangles
+     * @param spawnAreaCount  The number of Pokemon spawn areas, 0 for no Pokemons layer
+     * @param seed            The seed used to place the objects
+     * @return The generated TiledMap
+     */
+    public static TiledMap createMap(int mapSize, int collisionCount, int spawnAreaCount, long seed) {
+        Random random = new Random(seed);
+        TiledMap map = new TiledMap();
+
+        MapLayer collision = new MapLayer();
+        collision.setName("Collision");
+        for (int i = 0; i < collisionCount; i++) {
+            float width = 8 + random.nextInt(40);
+            float height = 8 + random.nextInt(40);
+            collision.getObjects().add(new RectangleMapObject(random.nextFloat() * (mapSize - width), random.nextFloat() * (mapSize - height), width, height));
+        }
+        map.getLayers().add(collision);
+
+        MapLayer exits = new MapLayer();
+        exits.setName("Exits");
+        RectangleMapObject exit = new RectangleMapObject(mapSize - 16, mapSize - 16, 16, 16);
+        exit.setName("benchmark_exit");
+        exits.getObjects().add(exit);
+        map.getLayers().add(exits);
+
+        if (spawnAreaCount > 0) {
+            MapLayer pokemons = new MapLayer();
+            pokemons.setName("Pokemons");
+            for (int i = 0; i < spawnAreaCount; i++) {
+                pokemons.getObjects().add(new RectangleMapObject(random.nextFloat() * (mapSize - 256), random.nextFloat() * (mapSize - 256), 256, 256));
+            }
+            map.getLayers().add(pokemons);
+        }
+        return map;
+    }
+}
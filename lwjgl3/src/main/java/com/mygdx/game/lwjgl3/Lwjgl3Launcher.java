@@ -8,11 +8,25 @@ import com.mygdx.game.game.GameClass;
 public class Lwjgl3Launcher {
     public static void main(String[] args) {
         if (StartupHelper.startNewJvmIfRequired()) return; // This handles macOS support and helps on Windows.
-        createApplication();
+        createApplication(args);
     }
 
-    private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new GameClass(), getDefaultConfiguration());
+    private static Lwjgl3Application createApplication(String[] args) {
+        return new Lwjgl3Application(createGame(args), getDefaultConfiguration());
+    }
+
+    /**
+     * Creates the game, seeded with the value of the {@code --seed} argument or the {@code pokemon.seed} system property if given.
+     * The seed is printed on startup, so a run can be replayed by passing it back.
+     */
+    private static GameClass createGame(String[] args) {
+        String seed = System.getProperty("pokemon.seed");
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--seed")) {
+                seed = args[i + 1];
+            }
+        }
+        return seed == null ? new GameClass() : new GameClass(Long.parseLong(seed));
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {